@@ -1,3 +1,6 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
 import java.util.*;
 
 /**
@@ -22,12 +25,38 @@ public class App {
         return db.connect(url, username, password);
     }
 
-    // The main function.
-    public static void main(String[] args) {
+    /**
+     * Apply any pending schema migrations.
+     * @param dir The folder holding the migration files.
+     * @return True if the schema is up to date, false otherwise.
+     */
+    public boolean migrateDatabase(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            Terminal.database("No migrations found at " + dir + ", skipping.");
+            return true;
+        }
+        try (Connection conn = db.getConnection()) {
+            return Migrator.migrate(conn, dir) >= 0;
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return false;
+    }
 
-        Scanner sc = new Scanner(System.in);
-        App app = new App();
+    // Load the rarely changing lookup tables into memory ahead of the first request.
+    public void preloadReferenceData() {
+        try (Connection conn = db.getConnection()) {
+            ReferenceData.preload(conn);
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+    }
 
+    /**
+     * Ask for the database details on the terminal until a connection succeeds.
+     * @param sc The scanner reading the terminal.
+     */
+    public void promptConnect(Scanner sc) {
         while(true) {
             Terminal.app("Please enter your database's hostname.");
             String host = sc.nextLine();
@@ -41,7 +70,7 @@ public class App {
             String password = sc.nextLine();
             
             if (
-                app.connectDatabase(
+                connectDatabase(
                     "jdbc:postgresql://" + host + ":" + port + "/" + dbName,
                     username,
                     password
@@ -49,13 +78,85 @@ public class App {
             ) break;
             Terminal.app("Attempting login again...");
         }
+    }
+
+    /**
+     * Serve the Controller over HTTP until the process is stopped.
+     * @param port The port to listen on.
+     */
+    public void serve(int port) {
+        Server server;
+        try {
+            server = new Server(db, port);
+        } catch (Exception e) {
+            Terminal.exception(e);
+            Terminal.error("Exiting app.");
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Terminal.app("Shutting down server...");
+            server.stop();
+            try {
+                db.close();
+            } catch (Exception e) {
+                Terminal.exception(e);
+            }
+        }));
+        server.start();
+    }
+
+    // The main function.
+    public static void main(String[] args) {
+
+        Scanner sc = new Scanner(System.in);
+        App app = new App();
+
+        // --server <port> serves HTTP instead of running the terminal interface.
+        Integer serverPort = null;
+        if (args.length == 2 && args[0].equals("--server")) {
+            try {
+                serverPort = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                Terminal.error("Invalid port " + args[1] + ".");
+                System.exit(1);
+            }
+        } else if (args.length > 0) {
+            Terminal.error("Usage: java -jar App.jar [--server <port>]");
+            System.exit(1);
+        }
+
+        // A server has no one at the terminal, so it may be given the database up front.
+        String url = System.getProperty("db.url");
+        if (url == null) {
+            app.promptConnect(sc);
+        } else if (!app.connectDatabase(
+            url,
+            System.getProperty("db.username"),
+            System.getProperty("db.password", System.getenv("PGPASSWORD"))
+        )) {
+            Terminal.error("Exiting app.");
+            System.exit(1);
+        }
+
+        if (!app.migrateDatabase(Path.of(System.getProperty("db.migrations", "sql/migrations")))) {
+            Terminal.error("Failed to migrate the database schema.");
+            Terminal.error("Exiting app.");
+            System.exit(1);
+        }
+
+        app.preloadReferenceData();
+
+        if (serverPort != null) {
+            app.serve(serverPort);
+            return;
+        }
 
-        Controller controller = new Controller(app.db.getConnection());
-        CLI cli = new CLI(app.db.getConnection(), controller, sc);
+        Controller controller = new Controller(app.db);
+        CLI cli = new CLI(controller, sc);
         cli.run();
 
         try {
-            app.db.closeConnection();
+            app.db.close();
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -0,0 +1,141 @@
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of the Controller.
+ * Every operation runs on its own virtual thread with its own connection from
+ * the pool, so independent lookups can be issued together and joined. A
+ * future completes exceptionally if no connection could be borrowed; failures
+ * inside the helpers still complete it with null or false, like the Controller.
+ * The member dashboard is the exception: it fails if any of its parts does.
+ */
+public class AsyncController implements AutoCloseable {
+
+    private final Database db;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AsyncController(Database db) {
+        this.db = db;
+    }
+
+    /**
+     * Run an operation on a virtual thread with a connection borrowed from the pool.
+     * @param operation The operation to run.
+     * @return A future completed with the result of the operation.
+     */
+    private <T> CompletableFuture<T> supply(Function<Connection, T> operation) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = db.getConnection()) {
+                return operation.apply(conn);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<Boolean> registerMember(
+        String name,
+        Date dob,
+        String gender,
+        String email,
+        String phone
+    ) {
+        return supply(conn -> {
+            if (Member.emailExists(conn, email)) {
+                Terminal.error("A member with that email already exists.");
+                return false;
+            }
+            return Member.add(conn, name, dob, gender, email, phone);
+        });
+    }
+
+    public CompletableFuture<Integer> getMemberIdByEmail(String email) {
+        return supply(conn -> Member.getIdByEmail(conn, email));
+    }
+
+    public CompletableFuture<MemberRecord> getMemberProfile(Integer memberId) {
+        return supply(conn -> Member.load(conn, memberId));
+    }
+
+    public CompletableFuture<LinkedList<FitnessGoalView>> getFitnessGoalViews(Integer memberId) {
+        return supply(conn -> FitnessGoal.listWithTypes(conn, memberId));
+    }
+
+    public CompletableFuture<Boolean> addHealthMetric(
+        Integer memberId,
+        Integer heartRate,
+        Float bodyFat,
+        Integer weight,
+        Integer height
+    ) {
+        return supply(conn -> HealthMetric.add(conn, memberId, heartRate, bodyFat, weight, height));
+    }
+
+    public CompletableFuture<LinkedList<HealthMetricRecord>> getHealthHistory(
+        Integer memberId,
+        Timestamp from,
+        Timestamp to,
+        Integer limit
+    ) {
+        return supply(conn -> HealthMetric.getHistory(conn, memberId, from, to, limit));
+    }
+
+    public CompletableFuture<HealthMetricRecord> getLatestHealthMetric(Integer memberId) {
+        return supply(conn -> HealthMetric.getLatestRecord(conn, memberId));
+    }
+
+    /**
+     * Load a member's profile, latest health metric and goals concurrently.
+     * @param memberId The ID of the member.
+     * @return A future completed with the dashboard, or with null if the member was not found.
+     *  It completes exceptionally with an IllegalStateException if the latest
+     *  metric or the goals could not be loaded.
+     */
+    public CompletableFuture<MemberDashboard> getMemberDashboard(Integer memberId) {
+        CompletableFuture<MemberRecord> profile = getMemberProfile(memberId);
+        // A null latest metric means the member has none, so a failed read has to throw instead.
+        CompletableFuture<HealthMetricRecord> latestMetric = supply(conn -> {
+            try {
+                return HealthMetric.readLatestRecord(conn, memberId);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to load the latest health metric.", e);
+            }
+        });
+        CompletableFuture<LinkedList<FitnessGoalView>> goals = getFitnessGoalViews(memberId);
+        return CompletableFuture.allOf(profile, latestMetric, goals).thenApply(done -> {
+            if (profile.join() == null) return null;
+            if (goals.join() == null) throw new IllegalStateException("Failed to load the fitness goals.");
+            return new MemberDashboard(profile.join(), latestMetric.join(), goals.join());
+        });
+    }
+
+    public CompletableFuture<Reservation> reserveClassSeat(Integer classId, Integer memberId) {
+        return supply(conn -> ClassRegistration.reserve(conn, classId, memberId));
+    }
+
+    public CompletableFuture<Boolean> cancelClassRegistration(Integer classId, Integer memberId) {
+        return supply(conn -> ClassRegistration.delete(conn, classId, memberId));
+    }
+
+    public CompletableFuture<Integer> joinClassWaitlist(Integer classId, Integer memberId) {
+        return supply(conn -> Waitlist.join(conn, classId, memberId));
+    }
+
+    public CompletableFuture<Integer> getClassWaitlistPosition(Integer classId, Integer memberId) {
+        return supply(conn -> Waitlist.getPosition(conn, classId, memberId));
+    }
+
+    // Stop accepting work and wait for running operations to finish.
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
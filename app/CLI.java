@@ -1,5 +1,5 @@
 
-import java.sql.Connection;
+import java.nio.file.Path;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.LinkedList;
@@ -11,12 +11,10 @@ import java.util.Scanner;
  */
 public class CLI {
 
-    private final Connection conn;
     private final Controller controller;
     private final Scanner sc;
 
-    public CLI(Connection conn, Controller controller, Scanner sc) {
-        this.conn = conn;
+    public CLI(Controller controller, Scanner sc) {
         this.controller = controller;
         this.sc = sc;
     }
@@ -167,7 +165,7 @@ public class CLI {
             Terminal.app("4. PT session scheduling");
             Terminal.app("5. Class registration");
             Terminal.app("0. Back");
-            Terminal.app("(Options 4-5 not available yet.)");
+            Terminal.app("(Option 4 not available yet.)");
 
             String choice = sc.nextLine().trim();
 
@@ -185,9 +183,11 @@ public class CLI {
                     fitnessGoals(memberId);
                     break;
                 case "4":
-                case "5":
                     Terminal.app("Feature not implemented yet.");
                     break;
+                case "5":
+                    classRegistration(memberId);
+                    break;
                 default:
                     Terminal.error("Invalid choice. Try again.");
             }
@@ -198,18 +198,18 @@ public class CLI {
         boolean back = false;
 
         while (!back) {
-            String currentName = controller.getMemberName(memberId);
-            Date currentDob = controller.getMemberDOB(memberId);
-            String currentGender = controller.getMemberGender(memberId);
-            String currentEmail = controller.getMemberEmail(memberId);
-            String currentPhone = controller.getMemberPhone(memberId);
+            MemberRecord profile = controller.getMemberProfile(memberId);
+            if (profile == null) {
+                Terminal.error("Failed to load member profile.");
+                return;
+            }
 
             Terminal.app("\n--- Profile Management ---");
-            Terminal.app("1. Update name (current: " + currentName + ")");
-            Terminal.app("2. Update date of birth (current: " + currentDob + ")");
-            Terminal.app("3. Update gender (current: " + currentGender + ")");
-            Terminal.app("4. Update email (current: " + currentEmail + ")");
-            Terminal.app("5. Update phone (current: " + currentPhone + ")");
+            Terminal.app("1. Update name (current: " + profile.name() + ")");
+            Terminal.app("2. Update date of birth (current: " + profile.dateOfBirth() + ")");
+            Terminal.app("3. Update gender (current: " + profile.gender() + ")");
+            Terminal.app("4. Update email (current: " + profile.email() + ")");
+            Terminal.app("5. Update phone (current: " + profile.phone() + ")");
             Terminal.app("0. Back");
 
             String choice = sc.nextLine().trim();
@@ -364,19 +364,20 @@ public class CLI {
     }
 
     private void showHealthMetrics(Integer memberId) {
-        LinkedList<Integer> metrics = controller.getHealthMetrics(memberId);
+        LinkedList<HealthMetricRecord> metrics =
+                controller.getHealthHistory(memberId, null, null, null);
         if (metrics == null || metrics.isEmpty()) {
             Terminal.app("No metrics recorded yet.");
             return;
         }
         Terminal.app("Metrics (latest first):");
-        for (Integer id : metrics) {
+        for (HealthMetricRecord metric : metrics) {
             Terminal.app(
-                    controller.getHealthMetricTimestamp(id)
-                    + " | HR: " + controller.getHealthMetricHeartRate(id)
-                    + " bpm | Body fat: " + controller.getHealthMetricBodyFat(id)
-                    + " % | Weight: " + controller.getHealthMetricWeight(id)
-                    + " lbs | Height: " + controller.getHealthMetricHeight(id) + " cm"
+                    metric.timestamp()
+                    + " | HR: " + metric.heartRate()
+                    + " bpm | Body fat: " + metric.bodyFat()
+                    + " % | Weight: " + metric.weight()
+                    + " lbs | Height: " + metric.height() + " cm"
             );
         }
     }
@@ -435,34 +436,187 @@ public class CLI {
     }
 
     private void showFitnessGoals(Integer memberId) {
-        LinkedList<Integer> goals = controller.getFitnessGoals(memberId);
+        LinkedList<FitnessGoalView> goals = controller.getFitnessGoalViews(memberId);
         if (goals == null || goals.isEmpty()) {
             Terminal.app("No goals found.");
             return;
         }
         Terminal.app("Goals:");
-        for (Integer goalId : goals) {
+        for (FitnessGoalView goal : goals) {
             Terminal.app(
-                    "#" + goalId
-                    + " | " + controller.getGoalTypeName(goalId)
-                    + " target: " + controller.getGoalTargetValue(goalId)
-                    + " " + controller.getGoalTypeUnit(goalId)
-                    + " by " + controller.getGoalTargetDate(goalId)
-                    + " (start: " + controller.getGoalStartDate(goalId) + ")"
-                    + (controller.isGoalCompleted(goalId) ? " [completed]" : "")
+                    "#" + goal.goalId()
+                    + " | " + goal.typeName()
+                    + " target: " + goal.targetValue()
+                    + " " + goal.typeUnit()
+                    + " by " + goal.targetDate()
+                    + " (start: " + goal.startDate() + ")"
+                    + (goal.completed() ? " [completed]" : "")
             );
         }
     }
 
+    private void classRegistration(Integer memberId) {
+        boolean back = false;
+
+        while (!back) {
+            Terminal.app("\n--- Class Registration ---");
+            Terminal.app("1. Register for a class");
+            Terminal.app("2. Cancel a registration");
+            Terminal.app("3. Check waitlist position");
+            Terminal.app("4. Leave a waitlist");
+            Terminal.app("0. Back");
+            String choice = sc.nextLine().trim();
+
+            switch (choice) {
+                case "0":
+                    back = true;
+                    break;
+                case "1":
+                    reserveClass(memberId);
+                    break;
+                case "2":
+                    cancelClass(memberId);
+                    break;
+                case "3":
+                    showWaitlistPosition(memberId);
+                    break;
+                case "4":
+                    leaveWaitlist(memberId);
+                    break;
+                default:
+                    Terminal.error("Invalid choice. Try again.");
+            }
+        }
+    }
+
+    private void reserveClass(Integer memberId) {
+        try {
+            Terminal.app("Class ID:");
+            Integer classId = Integer.parseInt(sc.nextLine().trim());
+            switch (controller.reserveClassSeat(classId, memberId)) {
+                case RESERVED -> Terminal.app("Seat reserved.");
+                case FULL -> offerWaitlist(classId, memberId);
+                case ALREADY_REGISTERED -> Terminal.error("You are already registered in this class.");
+                case CONFLICT -> Terminal.error("The class overlaps another class you are registered in.");
+                case NOT_FOUND -> Terminal.error("No class found with that ID.");
+                case FAILED -> Terminal.error("Failed to reserve a seat.");
+                case UNAVAILABLE -> Terminal.error("The database is unavailable. Please try again.");
+            }
+        } catch (NumberFormatException e) {
+            Terminal.error("Invalid number entered. Please try again.");
+        }
+    }
+
+    private void offerWaitlist(Integer classId, Integer memberId) {
+        Terminal.app("The class is full. Join the waitlist? (y/n)");
+        if (!sc.nextLine().trim().equalsIgnoreCase("y")) return;
+        Integer position = controller.joinClassWaitlist(classId, memberId);
+        if (position == null) {
+            Terminal.error("Failed to join the waitlist.");
+            return;
+        }
+        if (position == 0) {
+            Terminal.app("A seat freed up in the meantime. Seat reserved.");
+            return;
+        }
+        Terminal.app("You are number " + position + " on the waitlist. "
+            + "You will be registered automatically when a seat frees up.");
+    }
+
+    private void showWaitlistPosition(Integer memberId) {
+        try {
+            Terminal.app("Class ID:");
+            Integer classId = Integer.parseInt(sc.nextLine().trim());
+            Integer position = controller.getClassWaitlistPosition(classId, memberId);
+            if (position == null) {
+                Terminal.error("Failed to look up the waitlist.");
+            } else if (position == 0) {
+                Terminal.app("You are not on the waitlist of that class.");
+            } else {
+                Terminal.app("You are number " + position + " on the waitlist.");
+            }
+        } catch (NumberFormatException e) {
+            Terminal.error("Invalid number entered. Please try again.");
+        }
+    }
+
+    private void leaveWaitlist(Integer memberId) {
+        try {
+            Terminal.app("Class ID:");
+            Integer classId = Integer.parseInt(sc.nextLine().trim());
+            boolean ok = controller.leaveClassWaitlist(classId, memberId);
+            if (ok) {
+                Terminal.app("Left the waitlist.");
+            }else {
+                Terminal.error("You are not on the waitlist of that class.");
+            }
+        } catch (NumberFormatException e) {
+            Terminal.error("Invalid number entered. Please try again.");
+        }
+    }
+
+    private void cancelClass(Integer memberId) {
+        try {
+            Terminal.app("Class ID:");
+            Integer classId = Integer.parseInt(sc.nextLine().trim());
+            boolean ok = controller.cancelClassRegistration(classId, memberId);
+            if (ok) {
+                Terminal.app("Registration cancelled.");
+            }else {
+                Terminal.error("You are not registered in that class.");
+            }
+        } catch (NumberFormatException e) {
+            Terminal.error("Invalid number entered. Please try again.");
+        }
+    }
+
     // TRAINER MENU (stub)
     // =====================
     private void trainerMenu() {
         Terminal.app("Trainer menu not implemented yet.");
     }
 
-    // ADMIN MENU (stub)
+    // ADMIN MENU
     // =====================
     private void adminMenu() {
-        Terminal.app("Administrative staff menu not implemented yet.");
+        boolean back = false;
+
+        while (!back) {
+            Terminal.app("\n--- Administrative Staff ---");
+            Terminal.app("1. Import members from CSV");
+            Terminal.app("0. Back");
+            String choice = sc.nextLine().trim();
+
+            switch (choice) {
+                case "0":
+                    back = true;
+                    break;
+                case "1":
+                    importMembers();
+                    break;
+                default:
+                    Terminal.error("Invalid choice. Try again.");
+            }
+        }
+    }
+
+    private void importMembers() {
+        Terminal.app("CSV file (columns name,date_of_birth,gender,email,phone[,join_date]):");
+        String file = sc.nextLine().trim();
+        if (file.isEmpty()) {
+            Terminal.error("File cannot be empty.");
+            return;
+        }
+        Path csv = Path.of(file);
+        Path rejects = csv.resolveSibling(csv.getFileName() + ".rejects.csv");
+        ImportResult result = controller.importMembers(csv, rejects);
+        if (result == null) {
+            Terminal.error("Failed to import members.");
+            return;
+        }
+        Terminal.app("Imported " + result.imported() + " member(s).");
+        if (result.rejected() > 0) {
+            Terminal.app(result.rejected() + " row(s) rejected, see " + rejects + ".");
+        }
     }
 }
@@ -1,19 +1,40 @@
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.LinkedList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 /**
  * Controller to keep DB calls out of the CLI.
+ * Every operation borrows its own connection from the pool.
  */
 public class Controller {
 
-    private final Connection conn;
+    private final Database db;
 
-    public Controller(Connection conn) {
-        this.conn = conn;
+    public Controller(Database db) {
+        this.db = db;
+    }
+
+    /**
+     * Run an operation on a connection borrowed from the pool.
+     * @param operation The operation to run.
+     * @param fallback The value returned if no connection could be borrowed.
+     * @return The result of the operation, or the fallback.
+     */
+    private <T> T withConnection(Function<Connection, T> operation, T fallback) {
+        try (Connection conn = db.getConnection()) {
+            return operation.apply(conn);
+        } catch (SQLException e) {
+            Terminal.exception(e);
+        }
+        return fallback;
     }
 
     public boolean registerMember(
@@ -23,78 +44,66 @@ public class Controller {
         String email,
         String phone
     ) {
-        if (Member.emailExists(conn, email)) {
-            Terminal.error("A member with that email already exists.");
-            return false;
-        }
-        return Member.add(conn, name, dob, gender, email, phone);
+        return withConnection(conn -> {
+            if (Member.emailExists(conn, email)) {
+                Terminal.error("A member with that email already exists.");
+                return false;
+            }
+            return Member.add(conn, name, dob, gender, email, phone);
+        }, false);
     }
 
     public Integer getMemberIdByEmail(String email) {
-        try {
-            String query = "SELECT member_id FROM members WHERE email = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            Integer id = null;
-            if (rs.next()) id = rs.getInt("member_id");
-            rs.close();
-            pstmt.close();
-            return id;
-        } catch (Exception e) {
-            Terminal.exception(e);
-        }
-        return null;
+        return withConnection(conn -> Member.getIdByEmail(conn, email), null);
+    }
+
+    public MemberRecord getMemberProfile(Integer memberId) {
+        return withConnection(conn -> Member.load(conn, memberId), null);
     }
 
     public String getMemberName(Integer memberId) {
-        return Member.getName(conn, memberId);
+        return withConnection(conn -> Member.getName(conn, memberId), null);
     }
 
     public Date getMemberDOB(Integer memberId) {
-        return Member.getDOB(conn, memberId);
+        return withConnection(conn -> Member.getDOB(conn, memberId), null);
     }
 
     public String getMemberGender(Integer memberId) {
-        return Member.getGender(conn, memberId);
+        return withConnection(conn -> Member.getGender(conn, memberId), null);
     }
 
     public String getMemberEmail(Integer memberId) {
-        return Member.getEmail(conn, memberId);
+        return withConnection(conn -> Member.getEmail(conn, memberId), null);
     }
 
     public String getMemberPhone(Integer memberId) {
-        return Member.getPhone(conn, memberId);
+        return withConnection(conn -> Member.getPhone(conn, memberId), null);
     }
 
     public boolean updateMemberName(Integer memberId, String name) {
-        return Member.updateName(conn, memberId, name);
+        return withConnection(conn -> Member.updateName(conn, memberId, name), false);
     }
 
     public boolean updateMemberDOB(Integer memberId, Date dob) {
-        return Member.updateDOB(conn, memberId, dob);
+        return withConnection(conn -> Member.updateDOB(conn, memberId, dob), false);
     }
 
     public boolean updateMemberGender(Integer memberId, String gender) {
-        return Member.updateGender(conn, memberId, gender);
+        return withConnection(conn -> Member.updateGender(conn, memberId, gender), false);
     }
 
     public boolean updateMemberEmail(Integer memberId, String email) {
-        try {
-            Integer existing = getMemberIdByEmail(email);
-            if (existing != null && !existing.equals(memberId)) {
-                Terminal.error("Another member already uses that email.");
-                return false;
-            }
-            return Member.updateEmail(conn, memberId, email);
-        } catch (Exception e) {
-            Terminal.exception(e);
+        Integer existing = getMemberIdByEmail(email);
+        if (existing != null && !existing.equals(memberId)) {
+            Terminal.error("Another member already uses that email.");
+            return false;
         }
-        return false;
+        return withConnection(conn -> Member.updateEmail(conn, memberId, email), false);
     }
 
     public boolean updateMemberPhone(Integer memberId, String phone) {
-        return Member.updatePhone(conn, memberId, phone);
+        return withConnection(conn -> Member.updatePhone(conn, memberId, phone), false);
     }
 
     public boolean addFitnessGoal(
@@ -104,49 +113,54 @@ public class Controller {
         Date targetDate,
         Date startDate
     ) {
-        try {
-            if (!GoalType.exists(conn, typeId)) return false;
-            return FitnessGoal.add(conn, memberId, typeId, targetValue, targetDate, startDate);
-        } catch (Exception e) {
-            Terminal.exception(e);
-        }
-        return false;
+        return withConnection(
+            conn -> FitnessGoal.add(conn, memberId, typeId, targetValue, targetDate, startDate),
+            false
+        );
     }
 
     public LinkedList<Integer> getFitnessGoals(Integer memberId) {
-        return FitnessGoal.getGoals(conn, memberId);
+        return withConnection(conn -> FitnessGoal.getGoals(conn, memberId), null);
+    }
+
+    public LinkedList<FitnessGoalView> getFitnessGoalViews(Integer memberId) {
+        return withConnection(conn -> FitnessGoal.listWithTypes(conn, memberId), null);
     }
 
     public Integer getGoalTypeId(Integer goalId) {
-        return FitnessGoal.getTypeId(conn, goalId);
+        return withConnection(conn -> FitnessGoal.getTypeId(conn, goalId), null);
     }
 
     public String getGoalTypeName(Integer goalId) {
-        Integer typeId = getGoalTypeId(goalId);
-        if (typeId == null) return null;
-        return GoalType.getName(conn, typeId);
+        return withConnection(conn -> {
+            Integer typeId = FitnessGoal.getTypeId(conn, goalId);
+            if (typeId == null) return null;
+            return GoalType.getName(conn, typeId);
+        }, null);
     }
 
     public String getGoalTypeUnit(Integer goalId) {
-        Integer typeId = getGoalTypeId(goalId);
-        if (typeId == null) return null;
-        return GoalType.getUnit(conn, typeId);
+        return withConnection(conn -> {
+            Integer typeId = FitnessGoal.getTypeId(conn, goalId);
+            if (typeId == null) return null;
+            return GoalType.getUnit(conn, typeId);
+        }, null);
     }
 
     public Float getGoalTargetValue(Integer goalId) {
-        return FitnessGoal.getTargetValue(conn, goalId);
+        return withConnection(conn -> FitnessGoal.getTargetValue(conn, goalId), null);
     }
 
     public Date getGoalTargetDate(Integer goalId) {
-        return FitnessGoal.getTargetDate(conn, goalId);
+        return withConnection(conn -> FitnessGoal.getTargetDate(conn, goalId), null);
     }
 
     public Date getGoalStartDate(Integer goalId) {
-        return FitnessGoal.getStartDate(conn, goalId);
+        return withConnection(conn -> FitnessGoal.getStartDate(conn, goalId), null);
     }
 
     public boolean isGoalCompleted(Integer goalId) {
-        return FitnessGoal.isCompleted(conn, goalId);
+        return withConnection(conn -> FitnessGoal.isCompleted(conn, goalId), false);
     }
 
     public boolean addHealthMetric(
@@ -156,30 +170,139 @@ public class Controller {
         Integer weight,
         Integer height
     ) {
-        return HealthMetric.add(conn, memberId, heartRate, bodyFat, weight, height);
+        return withConnection(
+            conn -> HealthMetric.add(conn, memberId, heartRate, bodyFat, weight, height),
+            false
+        );
     }
 
     public LinkedList<Integer> getHealthMetrics(Integer memberId) {
-        return HealthMetric.getRecords(conn, memberId);
+        return withConnection(conn -> HealthMetric.getRecords(conn, memberId), null);
+    }
+
+    public LinkedList<HealthMetricRecord> getHealthHistory(
+        Integer memberId,
+        Timestamp from,
+        Timestamp to,
+        Integer limit
+    ) {
+        return withConnection(
+            conn -> HealthMetric.getHistory(conn, memberId, from, to, limit),
+            null
+        );
+    }
+
+    public HealthMetricRecord getLatestHealthMetric(Integer memberId) {
+        return withConnection(conn -> HealthMetric.getLatestRecord(conn, memberId), null);
+    }
+
+    public LinkedList<HealthMetricRollup> getHealthRollups(
+        Integer memberId,
+        RollupPeriod period,
+        Timestamp from,
+        Timestamp to
+    ) {
+        return withConnection(
+            conn -> HealthMetric.getRollups(conn, memberId, period, from, to),
+            null
+        );
     }
 
     public Timestamp getHealthMetricTimestamp(Integer metricId) {
-        return HealthMetric.getTimestamp(conn, metricId);
+        return withConnection(conn -> HealthMetric.getTimestamp(conn, metricId), null);
     }
 
     public Integer getHealthMetricHeartRate(Integer metricId) {
-        return HealthMetric.getHeartRate(conn, metricId);
+        return withConnection(conn -> HealthMetric.getHeartRate(conn, metricId), null);
     }
 
     public Float getHealthMetricBodyFat(Integer metricId) {
-        return HealthMetric.getBodyFat(conn, metricId);
+        return withConnection(conn -> HealthMetric.getBodyFat(conn, metricId), null);
     }
 
     public Integer getHealthMetricWeight(Integer metricId) {
-        return HealthMetric.getWeight(conn, metricId);
+        return withConnection(conn -> HealthMetric.getWeight(conn, metricId), null);
     }
 
     public Integer getHealthMetricHeight(Integer metricId) {
-        return HealthMetric.getHeight(conn, metricId);
+        return withConnection(conn -> HealthMetric.getHeight(conn, metricId), null);
+    }
+
+    public Integer addTrainerAvailability(
+        Integer trainerId,
+        Timestamp start,
+        Timestamp end,
+        Integer recurrences
+    ) {
+        return withConnection(
+            conn -> TrainerAvailibility.addRecurring(conn, trainerId, start, end, recurrences),
+            null
+        );
+    }
+
+    public Integer loadTrainerSchedule(Path file) {
+        return withConnection(conn -> TrainerAvailibility.loadSchedule(conn, file), null);
+    }
+
+    public LinkedList<TimeSlot> findTrainerConflicts(
+        Integer trainerId,
+        Timestamp start,
+        Timestamp end,
+        Integer recurrences
+    ) {
+        return withConnection(
+            conn -> TrainerAvailibility.findConflicts(conn, trainerId, start, end, recurrences),
+            null
+        );
+    }
+
+    public Reservation reserveClassSeat(Integer classId, Integer memberId) {
+        return withConnection(
+            conn -> ClassRegistration.reserve(conn, classId, memberId),
+            Reservation.UNAVAILABLE
+        );
+    }
+
+    public boolean cancelClassRegistration(Integer classId, Integer memberId) {
+        return withConnection(conn -> ClassRegistration.delete(conn, classId, memberId), false);
+    }
+
+    public Integer joinClassWaitlist(Integer classId, Integer memberId) {
+        return withConnection(conn -> Waitlist.join(conn, classId, memberId), null);
+    }
+
+    public boolean leaveClassWaitlist(Integer classId, Integer memberId) {
+        return withConnection(conn -> Waitlist.leave(conn, classId, memberId), false);
+    }
+
+    public Integer getClassWaitlistPosition(Integer classId, Integer memberId) {
+        return withConnection(conn -> Waitlist.getPosition(conn, classId, memberId), null);
+    }
+
+    // Force the goal types, rooms and trainers to be reloaded on next use.
+    public void refreshReferenceData() {
+        ReferenceData.invalidate();
+    }
+
+    public double getReferenceDataHitRate() {
+        return ReferenceData.getHitRate();
+    }
+
+    public ImportResult importMembers(Path csv, Path rejects) {
+        return withConnection(conn -> MemberImport.importCsv(conn, csv, rejects), null);
+    }
+
+    public boolean forEachHealthMetric(Integer memberId, Consumer<HealthMetricRecord> action) {
+        return withConnection(
+            conn -> HealthMetric.forEachHistory(conn, memberId, Cursor.DEFAULT_FETCH_SIZE, action),
+            false
+        );
+    }
+
+    public boolean forEachMaintenanceTicket(IntConsumer action) {
+        return withConnection(
+            conn -> MaintenanceTicket.forEachTicket(conn, Cursor.DEFAULT_FETCH_SIZE, action),
+            false
+        );
     }
 }
@@ -0,0 +1,182 @@
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Growable list of primitive ints.
+ * Backed by a single int array, so a list of IDs costs four bytes per entry
+ * instead of a list node and a boxed Integer, and iterating it does not chase
+ * pointers. Not thread safe.
+ */
+public class IntList implements Iterable<Integer> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] values;
+    private int size;
+
+    /**
+     * Create an empty list.
+     */
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty list.
+     * @param capacity The number of values the list can hold before it grows.
+     */
+    public IntList(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative.");
+        values = new int[capacity];
+    }
+
+    /**
+     * Create a list holding the given values.
+     * @param values The values, copied into the list.
+     * @return The list.
+     */
+    public static IntList of(int... values) {
+        IntList list = new IntList(values.length);
+        System.arraycopy(values, 0, list.values, 0, values.length);
+        list.size = values.length;
+        return list;
+    }
+
+    /**
+     * Append a value to the end of the list.
+     * @param value The value to be added.
+     */
+    public void add(int value) {
+        if (size == values.length) values = Arrays.copyOf(values, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        values[size++] = value;
+    }
+
+    /**
+     * Get a value by position.
+     * @param index The position of the value.
+     * @return The value.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return values[index];
+    }
+
+    /**
+     * Get the number of values in the list.
+     * @return The number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the list holds no values.
+     * @return True if the list is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Check whether the list holds a value. Takes linear time.
+     * @param value The value to be searched.
+     * @return True if the value is in the list, false otherwise.
+     */
+    public boolean contains(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove every value, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Pass every value, in order, to an action without boxing it.
+     * @param action Receives each value.
+     */
+    public void forEachInt(IntConsumer action) {
+        for (int i = 0; i < size; i++) action.accept(values[i]);
+    }
+
+    /**
+     * Copy the values into an array of exactly the list's size.
+     * @return The values.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Stream the values.
+     * @return A stream of the values.
+     */
+    public IntStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+
+    /**
+     * Copy the values into a linked list of boxed integers, for callers of the older list APIs.
+     * @return The values.
+     */
+    public LinkedList<Integer> toLinkedList() {
+        LinkedList<Integer> list = new LinkedList<>();
+        for (int i = 0; i < size; i++) list.add(values[i]);
+        return list;
+    }
+
+    /**
+     * Iterate the values. The iterator's nextInt does not box.
+     * @return An iterator over the values.
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next >= size) throw new NoSuchElementException();
+                return values[next++];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof IntList list) || list.size != size) return false;
+        return Arrays.equals(values, 0, size, list.values, 0, size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) hash = 31 * hash + values[i];
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) out.append(", ");
+            out.append(values[i]);
+        }
+        return out.append(']').toString();
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.HashMap;
+
+/**
+ * Parser for the flat JSON objects sent as request bodies.
+ * Only an object of names to strings, numbers, booleans or null is accepted;
+ * every value is returned as its text, with null for a JSON null.
+ */
+public class JsonParser {
+
+    private final String text;
+    private int pos;
+
+    private JsonParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parse a flat JSON object.
+     * @param text The JSON text.
+     * @return The values of the object by name.
+     * @throws IllegalArgumentException If the text is not a flat JSON object.
+     */
+    public static HashMap<String, String> parseObject(String text) {
+        JsonParser parser = new JsonParser(text);
+        HashMap<String, String> values = parser.object();
+        parser.skipSpace();
+        if (parser.pos != text.length()) throw parser.error("Unexpected text after object");
+        return values;
+    }
+
+    private HashMap<String, String> object() {
+        HashMap<String, String> values = new HashMap<>();
+        expect('{');
+        skipSpace();
+        if (peek() == '}') {
+            pos++;
+            return values;
+        }
+        while (true) {
+            skipSpace();
+            String name = string();
+            skipSpace();
+            expect(':');
+            skipSpace();
+            values.put(name, value());
+            skipSpace();
+            char c = next();
+            if (c == '}') return values;
+            if (c != ',') throw error("Expected ',' or '}'");
+        }
+    }
+
+    private String value() {
+        char c = peek();
+        if (c == '"') return string();
+        if (c == '{' || c == '[') throw error("Nested values are not supported");
+        int start = pos;
+        while (pos < text.length() && "{}[],: \t\r\n\"".indexOf(text.charAt(pos)) < 0) pos++;
+        String literal = text.substring(start, pos);
+        if (literal.equals("null")) return null;
+        if (literal.equals("true") || literal.equals("false")) return literal;
+        if (!literal.matches("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?")) throw error("Invalid value");
+        return literal;
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') return sb.toString();
+            if (c < 0x20) throw error("Control character in string");
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            c = next();
+            switch (c) {
+                case '"', '\\', '/' -> sb.append(c);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) throw error("Invalid escape");
+                    try {
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid escape");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("Invalid escape");
+            }
+        }
+    }
+
+    private void skipSpace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private char peek() {
+        if (pos >= text.length()) throw error("Unexpected end of input");
+        return text.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(char c) {
+        if (next() != c) throw error("Expected '" + c + "'");
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + ".");
+    }
+}
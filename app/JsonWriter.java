@@ -0,0 +1,143 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+/**
+ * Minimal streaming JSON writer.
+ * Values are written straight to the underlying writer as they are added, so
+ * a response is never built up in memory. Dates are written as yyyy-mm-dd
+ * and timestamps as ISO 8601 local date-times.
+ */
+public class JsonWriter implements AutoCloseable {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    // Whether the container at each depth already holds a value.
+    private final boolean[] filled = new boolean[MAX_DEPTH];
+    private int depth;
+    // Set after a name so the following value is not preceded by a comma.
+    private boolean named;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        named = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        separate();
+        if (value == null) out.write("null");
+        else string(value);
+        return this;
+    }
+
+    public JsonWriter value(Number value) throws IOException {
+        separate();
+        if (value == null) out.write("null");
+        else if (value instanceof Double d && !Double.isFinite(d)) out.write("null");
+        else if (value instanceof Float f && !Float.isFinite(f)) out.write("null");
+        else out.write(value.toString());
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter value(Date value) throws IOException {
+        return value(value == null ? null : value.toString());
+    }
+
+    public JsonWriter value(Timestamp value) throws IOException {
+        return value(value == null ? null : value.toLocalDateTime().toString());
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        separate();
+        out.write("null");
+        return this;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private JsonWriter open(char bracket) throws IOException {
+        if (depth == MAX_DEPTH) throw new IllegalStateException("JSON nested too deeply.");
+        separate();
+        out.write(bracket);
+        filled[depth++] = false;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        if (depth == 0) throw new IllegalStateException("No open JSON container.");
+        depth--;
+        out.write(bracket);
+        return this;
+    }
+
+    // Write the comma between values of the current container.
+    private void separate() throws IOException {
+        if (named) {
+            named = false;
+            return;
+        }
+        if (depth == 0) return;
+        if (filled[depth - 1]) out.write(',');
+        filled[depth - 1] = true;
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (escape == null) continue;
+            out.write(s, start, i - start);
+            out.write(escape);
+            start = i + 1;
+        }
+        out.write(s, start, s.length() - start);
+        out.write('"');
+    }
+}
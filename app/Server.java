@@ -0,0 +1,503 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP server exposing the Controller operations as JSON endpoints.
+ * Built on the JDK's HTTP server with one virtual thread per exchange, so
+ * blocking Controller calls are cheap and many clients share the pool.
+ *
+ * <pre>
+ * POST   /members                                  register a member
+ * GET    /members?email=...                        look up a member ID
+ * GET    /members/{id}                             member profile
+ * GET    /members/{id}/dashboard                   profile, latest metric and goals
+ * GET    /members/{id}/metrics?from=&amp;to=&amp;limit=   health history
+ * POST   /members/{id}/metrics                     record a health metric
+ * GET    /members/{id}/trends?period=&amp;from=&amp;to=   health metric rollups (day, week, month)
+ * GET    /members/{id}/goals                       fitness goals
+ * POST   /members/{id}/goals                       create a fitness goal
+ * POST   /classes/{id}/registrations               reserve a seat
+ * DELETE /classes/{id}/registrations/{memberId}    cancel a registration
+ * GET    /classes/{id}/waitlist?memberId=...       waitlist position
+ * POST   /classes/{id}/waitlist                    join the waitlist, or take a seat if one is free
+ * DELETE /classes/{id}/waitlist/{memberId}         leave the waitlist
+ * </pre>
+ */
+public class Server {
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int STOP_DELAY_S = 2;
+
+    private final Controller controller;
+    private final AsyncController async;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer http;
+
+    /**
+     * Error raised by a handler to answer with a status code and message.
+     */
+    private static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Writes the JSON body of a response.
+     */
+    private interface Body {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Create a server bound to a port, not yet accepting requests.
+     * @param db The database to serve.
+     * @param port The port to listen on.
+     * @throws IOException If the port could not be bound.
+     */
+    public Server(Database db, int port) throws IOException {
+        controller = new Controller(db);
+        async = new AsyncController(db);
+        http = HttpServer.create(new InetSocketAddress(port), 0);
+        http.setExecutor(executor);
+        http.createContext("/members", this::handleMembers);
+        http.createContext("/classes", this::handleClasses);
+    }
+
+    public void start() {
+        http.start();
+        Terminal.app("Listening on port " + http.getAddress().getPort() + ".");
+    }
+
+    // Stop accepting requests, give running ones a moment to finish, then release the threads.
+    public void stop() {
+        http.stop(STOP_DELAY_S);
+        async.close();
+        executor.close();
+    }
+
+    private void handleMembers(HttpExchange exchange) throws IOException {
+        handle(exchange, path -> {
+            String method = exchange.getRequestMethod();
+            if (path.length == 1) {
+                if (method.equals("POST")) return registerMember(exchange);
+                if (method.equals("GET")) return findMember(exchange);
+                throw new HttpError(405, "Method not allowed.");
+            }
+            int memberId = parseId(path[1]);
+            String resource = path.length == 2 ? "" : path[2];
+            if (path.length > 3) throw new HttpError(404, "Not found.");
+            return switch (method + " " + resource) {
+                case "GET " -> getMember(memberId);
+                case "GET dashboard" -> getDashboard(memberId);
+                case "GET metrics" -> getMetrics(exchange, memberId);
+                case "POST metrics" -> addMetric(exchange, memberId);
+                case "GET trends" -> getTrends(exchange, memberId);
+                case "GET goals" -> getGoals(memberId);
+                case "POST goals" -> addGoal(exchange, memberId);
+                default -> throw new HttpError(404, "Not found.");
+            };
+        });
+    }
+
+    private void handleClasses(HttpExchange exchange) throws IOException {
+        handle(exchange, path -> {
+            if (path.length < 3 || path.length > 4) throw new HttpError(404, "Not found.");
+            int classId = parseId(path[1]);
+            String method = exchange.getRequestMethod();
+            String route = method + " " + path[2] + (path.length == 4 ? "/" : "");
+            return switch (route) {
+                case "POST registrations" -> reserveSeat(exchange, classId);
+                case "DELETE registrations/" -> cancelRegistration(classId, parseId(path[3]));
+                case "GET waitlist" -> getWaitlistPosition(exchange, classId);
+                case "POST waitlist" -> joinWaitlist(exchange, classId);
+                case "DELETE waitlist/" -> leaveWaitlist(classId, parseId(path[3]));
+                default -> throw new HttpError(404, "Not found.");
+            };
+        });
+    }
+
+    private Response registerMember(HttpExchange exchange) throws IOException {
+        HashMap<String, String> body = readBody(exchange);
+        String name = required(body, "name");
+        Date dob = parseDate(required(body, "dateOfBirth"));
+        String gender = required(body, "gender");
+        String email = required(body, "email");
+        String phone = required(body, "phone");
+        if (controller.getMemberIdByEmail(email) != null)
+            throw new HttpError(409, "A member with that email already exists.");
+        if (!controller.registerMember(name, dob, gender, email, phone)) {
+            if (controller.getMemberIdByEmail(email) != null)
+                throw new HttpError(409, "A member with that email already exists.");
+            throw new HttpError(500, "Failed to register the member.");
+        }
+        Integer memberId = controller.getMemberIdByEmail(email);
+        return new Response(201, json -> json.beginObject().name("memberId").value(memberId).endObject());
+    }
+
+    private Response findMember(HttpExchange exchange) {
+        String email = query(exchange).get("email");
+        if (email == null) throw new HttpError(400, "Missing query parameter email.");
+        Integer memberId = controller.getMemberIdByEmail(email);
+        if (memberId == null) throw new HttpError(404, "Member not found.");
+        return new Response(200, json -> json.beginObject().name("memberId").value(memberId).endObject());
+    }
+
+    private Response getMember(int memberId) {
+        MemberRecord member = controller.getMemberProfile(memberId);
+        if (member == null) throw new HttpError(404, "Member not found.");
+        return new Response(200, json -> writeMember(json, member));
+    }
+
+    private Response getDashboard(int memberId) {
+        MemberDashboard dashboard = await(async.getMemberDashboard(memberId));
+        if (dashboard == null) throw new HttpError(404, "Member not found.");
+        return new Response(200, json -> {
+            json.beginObject().name("profile");
+            writeMember(json, dashboard.profile());
+            json.name("latestMetric");
+            if (dashboard.latestMetric() == null) json.nullValue();
+            else writeMetric(json, dashboard.latestMetric());
+            json.name("goals");
+            writeGoals(json, dashboard.goals());
+            json.endObject();
+        });
+    }
+
+    private Response getMetrics(HttpExchange exchange, int memberId) {
+        HashMap<String, String> query = query(exchange);
+        Timestamp from = query.containsKey("from") ? parseTimestamp(query.get("from")) : null;
+        Timestamp to = query.containsKey("to") ? parseTimestamp(query.get("to")) : null;
+        Integer limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : null;
+        LinkedList<HealthMetricRecord> history = controller.getHealthHistory(memberId, from, to, limit);
+        if (history == null) throw new HttpError(500, "Failed to load the health history.");
+        return new Response(200, json -> {
+            json.beginArray();
+            for (HealthMetricRecord metric : history) writeMetric(json, metric);
+            json.endArray();
+        });
+    }
+
+    private Response addMetric(HttpExchange exchange, int memberId) throws IOException {
+        HashMap<String, String> body = readBody(exchange);
+        Integer heartRate = parseInt(required(body, "heartRate"), "heartRate");
+        Float bodyFat = parseFloat(required(body, "bodyFat"), "bodyFat");
+        Integer weight = parseInt(required(body, "weight"), "weight");
+        Integer height = parseInt(required(body, "height"), "height");
+        if (!controller.addHealthMetric(memberId, heartRate, bodyFat, weight, height))
+            throw new HttpError(400, "Failed to record the health metric.");
+        return created();
+    }
+
+    private Response getTrends(HttpExchange exchange, int memberId) {
+        HashMap<String, String> query = query(exchange);
+        String periodName = query.getOrDefault("period", "day");
+        RollupPeriod period = RollupPeriod.parse(periodName);
+        if (period == null) throw new HttpError(400, "Invalid period " + periodName + ", expected day, week or month.");
+        Timestamp from = query.containsKey("from") ? parseTimestamp(query.get("from")) : null;
+        Timestamp to = query.containsKey("to") ? parseTimestamp(query.get("to")) : null;
+        LinkedList<HealthMetricRollup> rollups = controller.getHealthRollups(memberId, period, from, to);
+        if (rollups == null) throw new HttpError(500, "Failed to load the health trends.");
+        return new Response(200, json -> {
+            json.beginArray();
+            for (HealthMetricRollup rollup : rollups) writeRollup(json, rollup);
+            json.endArray();
+        });
+    }
+
+    private Response getGoals(int memberId) {
+        LinkedList<FitnessGoalView> goals = controller.getFitnessGoalViews(memberId);
+        if (goals == null) throw new HttpError(500, "Failed to load the fitness goals.");
+        return new Response(200, json -> writeGoals(json, goals));
+    }
+
+    private Response addGoal(HttpExchange exchange, int memberId) throws IOException {
+        HashMap<String, String> body = readBody(exchange);
+        Integer typeId = parseInt(required(body, "typeId"), "typeId");
+        Float targetValue = parseFloat(required(body, "targetValue"), "targetValue");
+        Date targetDate = parseDate(required(body, "targetDate"));
+        Date startDate = parseDate(required(body, "startDate"));
+        if (!controller.addFitnessGoal(memberId, typeId, targetValue, targetDate, startDate))
+            throw new HttpError(400, "Failed to create the fitness goal.");
+        return created();
+    }
+
+    private Response reserveSeat(HttpExchange exchange, int classId) throws IOException {
+        HashMap<String, String> body = readBody(exchange);
+        Integer memberId = parseInt(required(body, "memberId"), "memberId");
+        Reservation reservation = controller.reserveClassSeat(classId, memberId);
+        int status = switch (reservation) {
+            case RESERVED -> 201;
+            case FULL, ALREADY_REGISTERED, CONFLICT -> 409;
+            case NOT_FOUND -> 404;
+            case FAILED -> 500;
+            case UNAVAILABLE -> 503;
+        };
+        return new Response(status, json -> json.beginObject().name("result").value(reservation.name()).endObject());
+    }
+
+    private Response cancelRegistration(int classId, int memberId) {
+        if (!controller.cancelClassRegistration(classId, memberId))
+            throw new HttpError(404, "Registration not found.");
+        return noContent();
+    }
+
+    private Response getWaitlistPosition(HttpExchange exchange, int classId) {
+        String memberParam = query(exchange).get("memberId");
+        if (memberParam == null) throw new HttpError(400, "Missing query parameter memberId.");
+        Integer position = controller.getClassWaitlistPosition(classId, parseInt(memberParam, "memberId"));
+        if (position == null) throw new HttpError(500, "Failed to load the waitlist.");
+        return new Response(200, json -> json.beginObject().name("position").value(position).endObject());
+    }
+
+    private Response joinWaitlist(HttpExchange exchange, int classId) throws IOException {
+        HashMap<String, String> body = readBody(exchange);
+        Integer memberId = parseInt(required(body, "memberId"), "memberId");
+        Integer position = controller.joinClassWaitlist(classId, memberId);
+        if (position == null)
+            throw new HttpError(400, "Failed to join the waitlist. The class may not exist or overlap another class.");
+        // The member got a seat instead, one was free or they already had it.
+        if (position == 0) return new Response(200, json -> json.beginObject().name("registered").value(true).endObject());
+        return new Response(201, json -> json.beginObject().name("position").value(position).endObject());
+    }
+
+    private Response leaveWaitlist(int classId, int memberId) {
+        if (!controller.leaveClassWaitlist(classId, memberId))
+            throw new HttpError(404, "The member is not on the waitlist.");
+        return noContent();
+    }
+
+    private static void writeMember(JsonWriter json, MemberRecord member) throws IOException {
+        json.beginObject()
+            .name("memberId").value(member.memberId())
+            .name("name").value(member.name())
+            .name("dateOfBirth").value(member.dateOfBirth())
+            .name("gender").value(member.gender())
+            .name("email").value(member.email())
+            .name("phone").value(member.phone())
+            .name("joinDate").value(member.joinDate())
+            .endObject();
+    }
+
+    private static void writeMetric(JsonWriter json, HealthMetricRecord metric) throws IOException {
+        json.beginObject()
+            .name("metricId").value(metric.metricId())
+            .name("timestamp").value(metric.timestamp())
+            .name("heartRate").value(metric.heartRate())
+            .name("bodyFat").value(metric.bodyFat())
+            .name("weight").value(metric.weight())
+            .name("height").value(metric.height())
+            .endObject();
+    }
+
+    private static void writeRollup(JsonWriter json, HealthMetricRollup rollup) throws IOException {
+        json.beginObject()
+            .name("bucketStart").value(rollup.bucketStart())
+            .name("count").value(rollup.sampleCount())
+            .name("heartRate").beginObject()
+                .name("min").value(rollup.heartRateMin())
+                .name("max").value(rollup.heartRateMax())
+                .name("avg").value(rollup.heartRateAvg())
+                .endObject()
+            .name("bodyFat").beginObject()
+                .name("min").value(rollup.bodyFatMin())
+                .name("max").value(rollup.bodyFatMax())
+                .name("avg").value(rollup.bodyFatAvg())
+                .endObject()
+            .name("weight").beginObject()
+                .name("min").value(rollup.weightMin())
+                .name("max").value(rollup.weightMax())
+                .name("avg").value(rollup.weightAvg())
+                .endObject()
+            .name("height").beginObject()
+                .name("min").value(rollup.heightMin())
+                .name("max").value(rollup.heightMax())
+                .name("avg").value(rollup.heightAvg())
+                .endObject()
+            .endObject();
+    }
+
+    private static void writeGoals(JsonWriter json, LinkedList<FitnessGoalView> goals) throws IOException {
+        json.beginArray();
+        for (FitnessGoalView goal : goals) {
+            json.beginObject()
+                .name("goalId").value(goal.goalId())
+                .name("typeId").value(goal.typeId())
+                .name("typeName").value(goal.typeName())
+                .name("typeUnit").value(goal.typeUnit())
+                .name("targetValue").value(goal.targetValue())
+                .name("targetDate").value(goal.targetDate())
+                .name("startDate").value(goal.startDate())
+                .name("completed").value(goal.completed())
+                .endObject();
+        }
+        json.endArray();
+    }
+
+    /**
+     * Status code and body of a response; a null body sends no content.
+     */
+    private record Response(int status, Body body) {}
+
+    private static Response created() {
+        return new Response(201, json -> json.beginObject().name("created").value(true).endObject());
+    }
+
+    private static Response noContent() {
+        return new Response(204, null);
+    }
+
+    /**
+     * Routes a request by the segments of its path.
+     */
+    private interface Route {
+        Response apply(String[] path) throws IOException;
+    }
+
+    // Run a route and send its response, turning failures into JSON errors.
+    private static void handle(HttpExchange exchange, Route route) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                String path = exchange.getRequestURI().getPath();
+                response = route.apply(path.substring(1).split("/"));
+            } catch (HttpError e) {
+                response = error(e.status, e.getMessage());
+            } catch (RuntimeException e) {
+                Terminal.exception(e);
+                response = error(500, "Internal server error.");
+            }
+            send(exchange, response);
+        }
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, json -> json.beginObject().name("error").value(message).endObject());
+    }
+
+    // Stream the body straight to the client using chunked encoding.
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), 0);
+        try (JsonWriter json = new JsonWriter(new BufferedWriter(
+            new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)
+        ))) {
+            response.body().write(json);
+        }
+    }
+
+    private static HashMap<String, String> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) throw new HttpError(413, "Request body too large.");
+        try {
+            return JsonParser.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Invalid JSON: " + e.getMessage());
+        }
+    }
+
+    private static HashMap<String, String> query(HttpExchange exchange) {
+        HashMap<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(
+                URLDecoder.decode(name, StandardCharsets.UTF_8),
+                URLDecoder.decode(value, StandardCharsets.UTF_8)
+            );
+        }
+        return params;
+    }
+
+    private static String required(HashMap<String, String> body, String name) {
+        String value = body.get(name);
+        if (value == null) throw new HttpError(400, "Missing field " + name + ".");
+        return value;
+    }
+
+    private static int parseId(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new HttpError(404, "Not found.");
+        }
+    }
+
+    private static Integer parseInt(String text, String name) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Invalid " + name + ".");
+        }
+    }
+
+    private static Float parseFloat(String text, String name) {
+        try {
+            return Float.parseFloat(text);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Invalid " + name + ".");
+        }
+    }
+
+    private static Date parseDate(String text) {
+        try {
+            return Date.valueOf(text);
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Invalid date " + text + ", expected yyyy-mm-dd.");
+        }
+    }
+
+    private static Timestamp parseTimestamp(String text) {
+        try {
+            return Utilities.parseTimestamp(text.replace('T', ' '));
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Invalid timestamp " + text + ", expected yyyy-mm-dd hh:mm.");
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // No connection could be borrowed from the pool.
+            if (e.getCause() instanceof SQLException) throw new HttpError(503, "Database unavailable.");
+            Terminal.exception(e);
+            throw new HttpError(500, "Internal server error.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpError(503, "Interrupted.");
+        }
+    }
+}
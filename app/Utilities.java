@@ -1,3 +1,4 @@
+import java.sql.SQLException;
 import java.sql.Timestamp;
 
 /**
@@ -13,4 +14,25 @@ public class Utilities {
     ) {
         return s1.before(e2) && s2.before(e1);
     }
+
+    /**
+     * Check if an exception is the database rejecting an overlapping booking.
+     * @param e The exception to be checked.
+     * @return True if an exclusion constraint was violated, false otherwise.
+     */
+    public static boolean isBookingConflict(Exception e) {
+        return e instanceof SQLException sqle && "23P01".equals(sqle.getSQLState());
+    }
+
+    /**
+     * Parse a timestamp written as yyyy-mm-dd hh:mm, with optional seconds.
+     * @param text The text to be parsed.
+     * @return The parsed timestamp.
+     * @throws IllegalArgumentException If the text is not a valid timestamp.
+     */
+    public static Timestamp parseTimestamp(String text) {
+        text = text.strip();
+        if (text.length() == 16) text += ":00";
+        return Timestamp.valueOf(text);
+    }
 }
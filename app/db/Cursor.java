@@ -0,0 +1,77 @@
+import java.sql.*;
+
+/**
+ * Cursor class to walk large query results in constant memory.
+ * The PostgreSQL driver reads a whole result into memory before returning the
+ * first row, unless autocommit is off and a fetch size is set, in which case
+ * it fetches the rows through a server-side cursor in batches. Cursor runs a
+ * query that way and hands each row to a callback.
+ */
+public class Cursor {
+
+    // Rows fetched per round trip unless a caller asks for something else.
+    public static final int DEFAULT_FETCH_SIZE = Integer.getInteger("db.cursor.fetchSize", 1000);
+
+    /**
+     * Binds the parameters of a query.
+     */
+    public interface Parameters {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    /**
+     * Receives the rows of a query one at a time.
+     */
+    public interface RowHandler {
+        void row(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Run a query and pass each row to a handler, fetching the rows in batches.
+     * A connection in autocommit mode is switched out of it for the duration
+     * of the query; otherwise the query runs in the caller's transaction.
+     * @param conn The connection to the database.
+     * @param query The query to run.
+     * @param parameters Binds the parameters of the query.
+     * @param fetchSize The number of rows fetched per round trip.
+     * @param handler Receives each row; the result set must not be advanced by it.
+     * @return The number of rows handled.
+     * @throws SQLException If the query failed or the handler threw.
+     */
+    public static long forEach(
+        Connection conn,
+        String query,
+        Parameters parameters,
+        int fetchSize,
+        RowHandler handler
+    ) throws SQLException {
+        if (fetchSize <= 0) throw new IllegalArgumentException("Fetch size must be positive.");
+        boolean autoCommit = conn.getAutoCommit();
+        if (autoCommit) conn.setAutoCommit(false);
+        try {
+            long rows = 0;
+            // Not cached: the fetch size is a property of the statement.
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                query,
+                ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY
+            )) {
+                parameters.bind(pstmt);
+                pstmt.setFetchSize(fetchSize);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.row(rs);
+                        rows++;
+                    }
+                }
+            }
+            if (autoCommit) conn.commit();
+            return rows;
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) conn.rollback();
+            throw e;
+        } finally {
+            if (autoCommit) conn.setAutoCommit(true);
+        }
+    }
+}
@@ -1,18 +1,102 @@
 import java.sql.*;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Database class to handle interactions with the database.
+ * Keeps a bounded pool of connections that are borrowed per operation and
+ * handed back by closing them.
  */
 public class Database {
 
-    private Connection conn;
+    // Default pool settings, overridable with system properties.
+    private static final int DEFAULT_MIN_SIZE = 2;
+    private static final int DEFAULT_MAX_SIZE = 10;
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 5 * 60 * 1000;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MS = 10 * 1000;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    // Connections idle for less than this are handed out without a validation round trip.
+    private static final long VALIDATION_SKIP_MS = 1000;
+    private static final int VALIDATION_TIMEOUT_S = 2;
+    private static final long EVICTION_INTERVAL_MS = 30 * 1000;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+    private final int statementCacheSize;
+
+    private String url;
+    private Properties info;
+
+    // Most recently used connections are kept at the head of the deque.
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> connections = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger open = new AtomicInteger();
+    private ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+
+    // Statement cache counters of connections that have already been closed.
+    private final AtomicLong retiredStatementHits = new AtomicLong();
+    private final AtomicLong retiredStatementMisses = new AtomicLong();
+    private final AtomicLong retiredStatementEvictions = new AtomicLong();
 
     public Database() {
-        conn = null;
+        this(
+            Integer.getInteger("db.pool.minSize", DEFAULT_MIN_SIZE),
+            Integer.getInteger("db.pool.maxSize", DEFAULT_MAX_SIZE),
+            Long.getLong("db.pool.idleTimeoutMillis", DEFAULT_IDLE_TIMEOUT_MS),
+            Long.getLong("db.pool.acquireTimeoutMillis", DEFAULT_ACQUIRE_TIMEOUT_MS),
+            Integer.getInteger("db.pool.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE)
+        );
+    }
+
+    /**
+     * Create a database with a custom pool configuration.
+     * @param minSize The number of connections kept open even when idle.
+     * @param maxSize The maximum number of connections open at once.
+     * @param idleTimeoutMillis How long a connection above the minimum may stay idle.
+     * @param acquireTimeoutMillis How long a borrower waits for a free connection.
+     * @param statementCacheSize How many prepared statements each connection keeps open.
+     */
+    public Database(
+        int minSize,
+        int maxSize,
+        long idleTimeoutMillis,
+        long acquireTimeoutMillis,
+        int statementCacheSize
+    ) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize)
+            throw new IllegalArgumentException("Invalid pool size " + minSize + ".." + maxSize);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
     }
 
     /**
      * Connect to the database.
+     * Opens the minimum number of pooled connections up front. Batched inserts
+     * are rewritten into multi-row inserts unless the URL turns it off.
      * @param url URL of the database.
      * @param username Username to log in to the database.
      * @param password to log in to the database.
@@ -22,30 +106,167 @@ public class Database {
         Terminal.database("Attempting to establish database connection...");
         try {
             Class.forName("org.postgresql.Driver");
-            Connection conn = DriverManager.getConnection(url, username, password);
-            if (conn != null) {
-                Terminal.database("Connected to database successfully.");
-                this.conn = conn;
-                return true;
-            }
-            
+            this.url = url;
+            info = new Properties();
+            if (username != null) info.setProperty("user", username);
+            if (password != null) info.setProperty("password", password);
+            info.setProperty("reWriteBatchedInserts", "true");
+            idle.offerFirst(create());
+            for (int i = 1; i < minSize; i++) idle.offerFirst(create());
+            startEvictor();
+            Terminal.database("Connected to database successfully.");
+            return true;
         } catch (ClassNotFoundException e) {
             Terminal.error("Failed to load the PostgreSQL JDBC driver.");
             Terminal.error("Exiting app.");
             System.exit(0);
         } catch (SQLException e) {
             Terminal.error("Incorrect login credentials.");
+            drain();
         }
         return false;
     }
 
-    public Connection getConnection() {
-        return conn;
+    /**
+     * Borrow a connection from the pool.
+     * Closing the returned connection hands it back to the pool.
+     * @return A validated connection to the database.
+     * @throws SQLException If no connection became free in time or one could not be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed || url == null) throw new SQLException("Database is not connected.");
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException(
+                    "Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection."
+                );
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (pc.idleMillis() < VALIDATION_SKIP_MS || pc.isValid(VALIDATION_TIMEOUT_S)) break;
+                validationFailures.incrementAndGet();
+                destroy(pc);
+            }
+            if (pc == null) pc = create();
+            borrows.incrementAndGet();
+            return pc.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hand a borrowed connection back to the pool.
+     * @param pc The pooled connection being returned.
+     */
+    void release(PooledConnection pc) {
+        try {
+            if (closed || !pc.reset()) destroy(pc);
+            else idle.offerFirst(pc);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Get a snapshot of the pool statistics.
+     * @return The current pool statistics.
+     */
+    public PoolStatistics getStatistics() {
+        int idleCount = idle.size();
+        long statementHits = retiredStatementHits.get();
+        long statementMisses = retiredStatementMisses.get();
+        long statementEvictions = retiredStatementEvictions.get();
+        for (PooledConnection pc : connections) {
+            StatementCache cache = pc.getStatementCache();
+            statementHits += cache.getHits();
+            statementMisses += cache.getMisses();
+            statementEvictions += cache.getEvictions();
+        }
+        return new PoolStatistics(
+            open.get(),
+            idleCount,
+            maxSize - permits.availablePermits(),
+            permits.getQueueLength(),
+            borrows.get(),
+            created.get(),
+            destroyed.get(),
+            timeouts.get(),
+            validationFailures.get(),
+            statementHits,
+            statementMisses,
+            statementEvictions
+        );
+    }
+
+    // Check if the database pool is connected.
+    public boolean connectionOpen() { return url != null && !closed; }
+
+    // Close every pooled connection and stop handing out new ones.
+    public void close() throws SQLException {
+        closed = true;
+        if (evictor != null) evictor.shutdownNow();
+        drain();
+    }
+
+    // Open a new physical connection.
+    private PooledConnection create() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, info);
+        open.incrementAndGet();
+        created.incrementAndGet();
+        PooledConnection pc = new PooledConnection(this, conn, statementCacheSize);
+        connections.add(pc);
+        return pc;
     }
 
-    // Check if the database connection is connected.
-    public boolean connectionOpen() { return !(conn == null); }
+    // Close a physical connection and forget about it.
+    private void destroy(PooledConnection pc) {
+        open.decrementAndGet();
+        destroyed.incrementAndGet();
+        if (connections.remove(pc)) {
+            StatementCache cache = pc.getStatementCache();
+            retiredStatementHits.addAndGet(cache.getHits());
+            retiredStatementMisses.addAndGet(cache.getMisses());
+            retiredStatementEvictions.addAndGet(cache.getEvictions());
+        }
+        pc.closePhysical();
+    }
 
-    // Close the database connection.
-    public void closeConnection() throws SQLException { conn.close(); }
+    // Close all idle connections.
+    private void drain() {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) destroy(pc);
+    }
+
+    // Periodically close connections that have been idle too long, down to the minimum size.
+    private void startEvictor() {
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(
+            this::evictIdle,
+            EVICTION_INTERVAL_MS,
+            EVICTION_INTERVAL_MS,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    private void evictIdle() {
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && open.get() > minSize) {
+            PooledConnection pc = it.next();
+            if (pc.idleMillis() < idleTimeoutMillis) break;
+            if (idle.removeLastOccurrence(pc)) destroy(pc);
+        }
+    }
 }
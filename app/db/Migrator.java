@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.HexFormat;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Migrator class to bring the database schema up to date.
+ * Applies the numbered SQL files of a migrations folder (e.g. 001_indexes.sql)
+ * in order, each in its own transaction, and records them in the
+ * schema_migrations table so every migration runs exactly once.
+ */
+public class Migrator {
+
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d+)_(.+)\\.sql");
+
+    // Arbitrary advisory lock key so concurrent app instances migrate one at a time.
+    private static final long LOCK_KEY = 0x4d49475241544f52L;
+
+    /**
+     * Apply every migration in the folder that has not been applied yet.
+     * @param conn The connection to the database.
+     * @param dir The folder holding the migration files.
+     * @return The number of migrations applied, or -1 if failed.
+     */
+    public static int migrate(Connection conn, Path dir) {
+        try {
+            TreeMap<Integer, Path> migrations = scan(dir);
+            boolean autoCommit = conn.getAutoCommit();
+            lock(conn, true);
+            try {
+                createVersionTable(conn);
+                TreeMap<Integer, String> applied = appliedVersions(conn);
+                int count = 0;
+                for (var migration : migrations.entrySet()) {
+                    int version = migration.getKey();
+                    Path file = migration.getValue();
+                    String sql = Files.readString(file, StandardCharsets.UTF_8);
+                    String checksum = checksum(sql);
+                    if (applied.containsKey(version)) {
+                        if (!applied.get(version).equals(checksum))
+                            Terminal.error("Migration " + file.getFileName() + " was changed after it was applied.");
+                        continue;
+                    }
+                    Terminal.database("Applying migration " + file.getFileName() + "...");
+                    apply(conn, version, file, sql, checksum);
+                    count++;
+                }
+                if (count > 0) Terminal.database("Applied " + count + " migration(s).");
+                return count;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+                lock(conn, false);
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return -1;
+    }
+
+    // Find the migration files of a folder, ordered by version number.
+    private static TreeMap<Integer, Path> scan(Path dir) throws IOException {
+        TreeMap<Integer, Path> migrations = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.sql")) {
+            for (Path file : files) {
+                Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+                if (!m.matches()) continue;
+                Path previous = migrations.put(Integer.parseInt(m.group(1)), file);
+                if (previous != null)
+                    throw new IOException("Migrations " + previous + " and " + file + " share a version.");
+            }
+        }
+        return migrations;
+    }
+
+    // Take or release the session level migration lock.
+    private static void lock(Connection conn, boolean acquire) throws SQLException {
+        String query = acquire ? "SELECT pg_advisory_lock(?)" : "SELECT pg_advisory_unlock(?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setLong(1, LOCK_KEY);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        String query = """
+            CREATE TABLE IF NOT EXISTS schema_migrations (
+                version         INT PRIMARY KEY,
+                name            VARCHAR(200) NOT NULL,
+                checksum        CHAR(64) NOT NULL,
+                applied_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(query);
+        }
+    }
+
+    private static TreeMap<Integer, String> appliedVersions(Connection conn) throws SQLException {
+        TreeMap<Integer, String> applied = new TreeMap<>();
+        String query = "SELECT version, checksum FROM schema_migrations";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    // Run a migration script and record it in the same transaction.
+    private static void apply(
+        Connection conn,
+        int version,
+        Path file,
+        String sql,
+        String checksum
+    ) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            }
+            String query = "INSERT INTO schema_migrations (version, name, checksum) VALUES (?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, version);
+                pstmt.setString(2, file.getFileName().toString());
+                pstmt.setString(3, checksum);
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    private static String checksum(String sql) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(sql.getBytes(StandardCharsets.UTF_8)));
+    }
+}
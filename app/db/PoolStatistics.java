@@ -0,0 +1,29 @@
+/**
+ * Record to hold a snapshot of the connection pool statistics.
+ * @param open The number of physical connections currently open.
+ * @param idle The number of open connections waiting in the pool.
+ * @param borrowed The number of connections currently lent out.
+ * @param waiting The number of borrowers waiting for a connection.
+ * @param borrows The total number of successful borrows.
+ * @param created The total number of physical connections opened.
+ * @param destroyed The total number of physical connections closed.
+ * @param timeouts The total number of borrows that timed out.
+ * @param validationFailures The total number of idle connections found broken on borrow.
+ * @param statementHits The total number of prepared statements served from a cache.
+ * @param statementMisses The total number of prepared statements parsed afresh.
+ * @param statementEvictions The total number of cached statements closed to make room.
+ */
+public record PoolStatistics(
+    int open,
+    int idle,
+    int borrowed,
+    int waiting,
+    long borrows,
+    long created,
+    long destroyed,
+    long timeouts,
+    long validationFailures,
+    long statementHits,
+    long statementMisses,
+    long statementEvictions
+) {}
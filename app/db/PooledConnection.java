@@ -0,0 +1,125 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Physical connection owned by the Database pool.
+ * Borrowers only ever see a lease proxy whose close() returns the connection
+ * to the pool instead of closing the socket, and whose prepareStatement(sql)
+ * is served from a per-connection statement cache.
+ */
+public class PooledConnection {
+
+    private final Database pool;
+    private final Connection conn;
+    private final StatementCache statements;
+    private volatile long lastUsed;
+
+    PooledConnection(Database pool, Connection conn, int statementCacheSize) {
+        this.pool = pool;
+        this.conn = conn;
+        this.statements = new StatementCache(conn, statementCacheSize);
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    // The prepared statement cache of this connection.
+    StatementCache getStatementCache() {
+        return statements;
+    }
+
+    // Milliseconds since the connection was last handed back.
+    long idleMillis() {
+        return System.currentTimeMillis() - lastUsed;
+    }
+
+    // Check the connection is still usable with a round trip to the server.
+    boolean isValid(int timeoutSeconds) {
+        try {
+            return conn.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wrap the connection in a proxy for a single borrower.
+     * @return The connection handed to the borrower.
+     */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new Lease()
+        );
+    }
+
+    /**
+     * Undo anything a borrower left behind before the connection is reused.
+     * @return True if the connection can go back into the pool, false otherwise.
+     */
+    boolean reset() {
+        try {
+            if (conn.isClosed()) return false;
+            statements.releaseAll();
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            lastUsed = System.currentTimeMillis();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Close the underlying socket.
+    void closePhysical() {
+        try {
+            statements.clear();
+            conn.close();
+        } catch (SQLException e) {
+            Terminal.exception(e);
+        }
+    }
+
+    /**
+     * Invocation handler for one borrow of the connection.
+     */
+    private class Lease implements InvocationHandler {
+
+        private boolean released;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + conn;
+                default:
+                    if (released) throw new SQLException("Connection has been returned to the pool.");
+            }
+            // Plain prepareStatement(sql) calls are served from the statement cache.
+            if (method.getName().equals("prepareStatement") && args.length == 1)
+                return statements.prepare((String) args[0]);
+            try {
+                return method.invoke(conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
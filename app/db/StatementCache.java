@@ -0,0 +1,178 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least recently used cache of prepared statements for one pooled connection,
+ * keyed by SQL text. Closing a statement handed out by the cache returns it to
+ * the cache instead of closing it, so the parse and plan work is only done once
+ * per connection.
+ */
+public class StatementCache {
+
+    private final Connection conn;
+    private final int capacity;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Create a statement cache.
+     * @param conn The physical connection the statements are prepared on.
+     * @param capacity The maximum number of statements kept open.
+     */
+    StatementCache(Connection conn, int capacity) {
+        this.conn = conn;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= StatementCache.this.capacity) return false;
+                evictions.incrementAndGet();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get a prepared statement for the given SQL, reusing a cached one if it is free.
+     * A statement already in use by the caller is never handed out twice; a
+     * separate uncached statement is prepared instead.
+     * @param sql The SQL text of the statement.
+     * @return The prepared statement.
+     * @throws SQLException If the statement could not be prepared.
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        if (capacity <= 0) return conn.prepareStatement(sql);
+        Entry entry = entries.get(sql);
+        if (entry != null && !entry.inUse) {
+            hits.incrementAndGet();
+            return entry.lease();
+        }
+        misses.incrementAndGet();
+        if (entry != null) return conn.prepareStatement(sql);
+        entry = new Entry(conn.prepareStatement(sql));
+        entries.put(sql, entry);
+        return entry.lease();
+    }
+
+    // Hand back statements a borrower forgot to close before the connection is reused.
+    void releaseAll() {
+        for (Entry entry : entries.values()) entry.release();
+    }
+
+    // Close every cached statement.
+    void clear() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            it.next().evict();
+            it.remove();
+        }
+    }
+
+    long getHits() { return hits.get(); }
+
+    long getMisses() { return misses.get(); }
+
+    long getEvictions() { return evictions.get(); }
+
+    /**
+     * A cached statement and whether it is currently lent out.
+     */
+    private static class Entry {
+
+        private final PreparedStatement pstmt;
+        private ResultSet lastResult;
+        private boolean inUse;
+        private boolean evicted;
+        private Lease lease;
+
+        Entry(PreparedStatement pstmt) {
+            this.pstmt = pstmt;
+        }
+
+        PreparedStatement lease() {
+            inUse = true;
+            lease = new Lease();
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                lease
+            );
+        }
+
+        // Return the statement to the cache, closing it if it was evicted while in use.
+        void release() {
+            if (!inUse) return;
+            inUse = false;
+            lease.released = true;
+            try {
+                if (lastResult != null) lastResult.close();
+                lastResult = null;
+                if (evicted) {
+                    pstmt.close();
+                } else {
+                    pstmt.clearParameters();
+                    pstmt.setFetchSize(0);
+                }
+            } catch (SQLException e) {
+                evicted = true;
+            }
+        }
+
+        // Drop the statement from the cache, closing it once nobody is using it.
+        void evict() {
+            evicted = true;
+            if (inUse) return;
+            try {
+                pstmt.close();
+            } catch (SQLException e) {
+                Terminal.exception(e);
+            }
+        }
+
+        /**
+         * Invocation handler for one lease of the cached statement.
+         */
+        private class Lease implements InvocationHandler {
+
+            private boolean released;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!released) release();
+                        return null;
+                    case "isClosed":
+                        return released || pstmt.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        if (released) throw new SQLException("Statement has been closed.");
+                }
+                try {
+                    Object result = method.invoke(pstmt, args);
+                    if (result instanceof ResultSet rs) lastResult = rs;
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 import java.sql.*;
 import java.util.LinkedList;
+import java.util.function.IntConsumer;
 
 /**
  * Helper class to handle the class registration table in the database.
@@ -9,8 +10,8 @@ public class ClassRegistration {
     /**
      * Insert a class registration into the class registration table.
      * @param conn The connection to the database.
-     * @param class_id The ID of the class.
-     * @param member_id The ID of the class.
+     * @param classId The ID of the class.
+     * @param memberId The ID of the member.
      * @return True if successfully added, false otherwise.
      */
     public static boolean add(
@@ -18,49 +19,97 @@ public class ClassRegistration {
         Integer classId,
         Integer memberId
     ) {
+        return reserve(conn, classId, memberId) == Reservation.RESERVED;
+    }
+
+    /**
+     * Reserve a seat in a class for a member in a single statement.
+     * The seat is taken by a conditional increment of the registered count of
+     * the class, so concurrent reservations can never overbook it, and the
+     * registration is inserted in the same statement. A member who was on the
+     * waitlist of the class leaves it.
+     * @param conn The connection to the database.
+     * @param classId The ID of the class.
+     * @param memberId The ID of the member.
+     * @return The outcome of the reservation.
+     */
+    public static Reservation reserve(Connection conn, Integer classId, Integer memberId) {
         try {
-            // Prevent registration to a full class.
             String query = """
-                SELECT COUNT(*)
-                    FROM class_registration
-                    WHERE member_id = ?
+                WITH target AS (
+                    SELECT class_id, slot
+                        FROM classes
+                        WHERE class_id = ?
+                ), checks AS (
+                    SELECT t.class_id,
+                           EXISTS (
+                               SELECT 1
+                                   FROM class_registration r
+                                   WHERE r.class_id = t.class_id
+                                       AND r.member_id = ?
+                           ) AS registered,
+                           EXISTS (
+                               SELECT 1
+                                   FROM class_registration r
+                                   JOIN classes o ON o.class_id = r.class_id
+                                   WHERE r.member_id = ?
+                                       AND o.slot && t.slot
+                           ) AS conflicting
+                        FROM target t
+                ), seat AS (
+                    UPDATE classes c
+                        SET registered_count = c.registered_count + 1
+                        FROM checks k
+                        WHERE c.class_id = k.class_id
+                            AND NOT k.registered
+                            AND NOT k.conflicting
+                            AND c.registered_count < c.capacity
+                        RETURNING c.class_id, c.start_timestamp, c.end_timestamp
+                ), registration AS (
+                    INSERT INTO class_registration (class_id, member_id, register_date)
+                        SELECT class_id, ?, CURRENT_DATE
+                            FROM seat
+                ), unlisted AS (
+                    DELETE FROM class_waitlist w
+                        USING seat s
+                        WHERE w.class_id = s.class_id
+                            AND w.member_id = ?
+                )
+                SELECT k.registered, k.conflicting, s.start_timestamp, s.end_timestamp
+                    FROM checks k
+                    LEFT JOIN seat s ON TRUE
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            Integer classRegistrations = pstmt.executeUpdate();
-            pstmt.close();
-            if (classRegistrations >= FitnessClass.getCapacity(conn, classId)) return false;
-
-            // Prevent a member from registering for a conflicting class.
-            if (isConflicting(
-                conn,
-                memberId,
-                FitnessClass.getStart(conn, classId),
-                FitnessClass.getEnd(conn, classId)
-            ))
-                return false;
-            query = """
-                INSERT INTO class_registration (
-                    class_id,
-                    member_id,
-                    register_date
-                ) VALUES (?, ?)
-                """;
-            pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            pstmt.setInt(2, memberId);
-            pstmt.setDate(3, java.sql.Date.valueOf(java.time.LocalDate.now()));
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                pstmt.setInt(2, memberId);
+                pstmt.setInt(3, memberId);
+                pstmt.setInt(4, memberId);
+                pstmt.setInt(5, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return Reservation.NOT_FOUND;
+                    Timestamp start = rs.getTimestamp("start_timestamp");
+                    if (start != null) return Reservation.RESERVED;
+                    if (rs.getBoolean("registered")) return Reservation.ALREADY_REGISTERED;
+                    if (rs.getBoolean("conflicting")) return Reservation.CONFLICT;
+                    return Reservation.FULL;
+                }
+            }
+        } catch (SQLException e) {
+            // A concurrent reservation by the same member won the primary key.
+            if ("23505".equals(e.getSQLState())) return Reservation.ALREADY_REGISTERED;
+            Terminal.exception(e);
         } catch (Exception e) {
             Terminal.exception(e);
-            return false;
         }
-        return true;
+        return Reservation.FAILED;
     }
 
     /**
      * Delete a class registration by ID.
+     * The freed seat goes to the first member on the waitlist of the class who
+     * has no overlapping class, in the same transaction; otherwise the seat is
+     * released. The class row is locked first, so a member joining the
+     * waitlist at the same time is either seen here or sees the free seat.
      * @param conn The connection to the database.
      * @param classId The ID of the class.
      * @param memberId The ID of the member.
@@ -68,22 +117,89 @@ public class ClassRegistration {
      */
     public static boolean delete(Connection conn, Integer classId, Integer memberId) {
         try {
-            if (!(isRegistered(conn, classId, memberId))) return false;
-            String query = """
+            boolean autoCommit = conn.getAutoCommit();
+            if (autoCommit) conn.setAutoCommit(false);
+            try {
+                boolean deleted = lock(conn, classId) && promote(conn, classId, memberId);
+                if (autoCommit) conn.commit();
+                return deleted;
+            } catch (Exception e) {
+                if (autoCommit) conn.rollback();
+                throw e;
+            } finally {
+                if (autoCommit) conn.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return false;
+    }
+
+    /**
+     * Lock the row of a class until the end of the transaction.
+     * Serialises the cancellations of a class with members joining its waitlist.
+     * @param conn The connection to the database.
+     * @param classId The ID of the class.
+     * @return True if the class exists, false otherwise.
+     */
+    static boolean lock(Connection conn, int classId) throws SQLException {
+        String query = "SELECT class_id FROM classes WHERE class_id = ? FOR NO KEY UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, classId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Remove a registration and hand its seat to the waitlist in one statement.
+    private static boolean promote(Connection conn, int classId, int memberId) throws SQLException {
+        String query = """
+            WITH removed AS (
                 DELETE FROM class_registration
                     WHERE class_id = ?
                         AND member_id = ?
-                """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
+                    RETURNING class_id
+            ), next AS (
+                SELECT w.class_id, w.member_id
+                    FROM class_waitlist w
+                    JOIN classes c ON c.class_id = w.class_id
+                    WHERE w.class_id IN (SELECT class_id FROM removed)
+                        AND NOT EXISTS (
+                            SELECT 1
+                                FROM class_registration r
+                                JOIN classes o ON o.class_id = r.class_id
+                                WHERE r.member_id = w.member_id
+                                    AND o.slot && c.slot
+                        )
+                    ORDER BY w.seq
+                    LIMIT 1
+                    FOR UPDATE OF w SKIP LOCKED
+            ), dequeued AS (
+                DELETE FROM class_waitlist w
+                    USING next n
+                    WHERE w.class_id = n.class_id
+                        AND w.member_id = n.member_id
+            ), promoted AS (
+                INSERT INTO class_registration (class_id, member_id, register_date)
+                    SELECT class_id, member_id, CURRENT_DATE
+                        FROM next
+                    RETURNING member_id
+            ), seat AS (
+                UPDATE classes
+                    SET registered_count = registered_count - 1 + (SELECT COUNT(*) FROM promoted)
+                    WHERE class_id IN (SELECT class_id FROM removed)
+                    RETURNING class_id
+            )
+            SELECT class_id FROM seat
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, classId);
             pstmt.setInt(2, memberId);
-            pstmt.executeUpdate();
-            pstmt.close();
-        } catch (Exception e) {
-            Terminal.exception(e);
-            return false;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
         }
-        return true;
     }
 
     /**
@@ -102,31 +218,28 @@ public class ClassRegistration {
         Timestamp endTimestamp
     ) {
         try {
-            // Get all the classes of the trainer.
             String query = """
-                SELECT start_timestamp, end_timestamp
-                    FROM class_registration
-                    WHERE member_id = ?
+                SELECT EXISTS (
+                    SELECT 1
+                        FROM class_registration r
+                        JOIN classes c ON c.class_id = r.class_id
+                        WHERE r.member_id = ?
+                            AND c.slot && tsrange(?, ?)
+                ) AS conflicting
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-
-            // Check each class for scheduling conflicts.
-            while(rs.next()) {
-                Timestamp st = rs.getTimestamp("start_timestamp");
-                Timestamp et = rs.getTimestamp("end_timestamp");
-                if (Utilities.overlaps(startTimestamp, endTimestamp, st, et))
-                    return true;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                pstmt.setTimestamp(2, startTimestamp);
+                pstmt.setTimestamp(3, endTimestamp);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return rs.getBoolean("conflicting");
+                }
             }
-            
-            rs.close();
-
         } catch (Exception e) {
             Terminal.exception(e);
-            return true;
         }
-        return false;
+        return true;
     }
 
     /**
@@ -144,14 +257,14 @@ public class ClassRegistration {
                     WHERE class_id = ?
                         AND member_id = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            pstmt.setInt(2, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean isRegistered = rs.next();
-            pstmt.close();
-            rs.close();
-            return isRegistered;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                pstmt.setInt(2, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean isRegistered = rs.next();
+                    return isRegistered;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -167,22 +280,21 @@ public class ClassRegistration {
      */
     public static Date getRegistrationDate(Connection conn, Integer classId, Integer memberId) {
         try {
-            if (!isRegistered(conn, classId, memberId)) return null;
             String query = """
                 SELECT register_date
                     FROM class_registration
                     WHERE class_id = ?
                         AND member_id = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            pstmt.setInt(2, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date date = rs.getDate("register_date");
-            pstmt.close();
-            rs.close();
-            return date;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                pstmt.setInt(2, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Date date = rs.getDate("register_date");
+                    return date;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -191,21 +303,33 @@ public class ClassRegistration {
 
     /**
      * Get the IDs of registered classes of a member by ID.
+     * Boxes every ID; getRegistratedClassIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
      * @return The IDs of the registered classes.
      */
     public static LinkedList<Integer> getRegistratedClasses(Connection conn, Integer memberId) {
+        IntList ids = getRegistratedClassIds(conn, memberId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of registered classes of a member by ID.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The primitive IDs of the registered classes.
+     */
+    public static IntList getRegistratedClassIds(Connection conn, Integer memberId) {
         try {
             String query = "SELECT class_id FROM class_registration WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("class_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("class_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -214,24 +338,61 @@ public class ClassRegistration {
 
     /**
      * Get the IDs of registered students of a class by ID.
+     * Boxes every ID; getRegisteredMemberIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param classId The ID of the class.
      * @return The IDs of the registered members.
      */
     public static LinkedList<Integer> getRegisteredMembers(Connection conn, Integer classId) {
+        IntList ids = getRegisteredMemberIds(conn, classId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of registered students of a class by ID.
+     * @param conn The connection to the database.
+     * @param classId The ID of the class.
+     * @return The primitive IDs of the registered members.
+     */
+    public static IntList getRegisteredMemberIds(Connection conn, Integer classId) {
         try {
             String query = "SELECT member_id FROM class_registration WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("member_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("member_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
         return null;
     }
+
+    /**
+     * Pass the IDs of the members registered in a class to an action.
+     * @param conn The connection to the database.
+     * @param classId The ID of the class.
+     * @param fetchSize The number of rows fetched per round trip.
+     * @param action Receives each ID.
+     * @return True if every row was handled, false otherwise.
+     */
+    public static boolean forEachRegisteredMember(Connection conn, Integer classId, int fetchSize, IntConsumer action) {
+        try {
+            String query = "SELECT member_id FROM class_registration WHERE class_id = ?";
+            Cursor.forEach(
+                conn,
+                query,
+                pstmt -> pstmt.setInt(1, classId),
+                fetchSize,
+                rs -> action.accept(rs.getInt("member_id"))
+            );
+        } catch (Exception e) {
+            Terminal.exception(e);
+            return false;
+        }
+        return true;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded least recently used cache from member email to member ID.
+ * Unknown emails are cached too, for a shorter time, so repeated failed
+ * logins do not reach the database. Member writes update the cache for the
+ * exact emails they touch.
+ */
+public class EmailCache {
+
+    private static final int DEFAULT_CAPACITY = 10000;
+    private static final long DEFAULT_TTL_MS = 10 * 60 * 1000;
+    private static final long DEFAULT_NEGATIVE_TTL_MS = 30 * 1000;
+
+    private static final int capacity = Integer.getInteger("db.emailCache.size", DEFAULT_CAPACITY);
+    private static final long ttlMillis = Long.getLong("db.emailCache.ttlMillis", DEFAULT_TTL_MS);
+    private static final long negativeTtlMillis =
+        Long.getLong("db.emailCache.negativeTtlMillis", DEFAULT_NEGATIVE_TTL_MS);
+
+    /**
+     * A cached lookup; a null member ID means no member has the email.
+     */
+    private record Entry(Integer memberId, long expiresAt) {}
+
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > capacity;
+        }
+    };
+    // Bumped on every write so a lookup racing with a write is not cached.
+    private static long version;
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Result of a cache lookup.
+     * @param cached True if the email was found in the cache.
+     * @param memberId The cached member ID, or null if no member has the email.
+     * @param version The write version seen by the lookup, to be passed back to put.
+     */
+    record Lookup(boolean cached, Integer memberId, long version) {}
+
+    // Look up an email in the cache.
+    static Lookup get(String email) {
+        synchronized (entries) {
+            Entry entry = entries.get(email);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return new Lookup(true, entry.memberId(), version);
+            }
+            if (entry != null) entries.remove(email);
+            misses.incrementAndGet();
+            return new Lookup(false, null, version);
+        }
+    }
+
+    // Cache the result of a database lookup unless a write happened since the cache was checked.
+    static void put(String email, Integer memberId, long seen) {
+        if (capacity <= 0) return;
+        synchronized (entries) {
+            if (version != seen) return;
+            entries.put(email, entry(memberId));
+        }
+    }
+
+    // Record the member ID now owning an email.
+    static void set(String email, int memberId) {
+        synchronized (entries) {
+            version++;
+            if (capacity > 0) entries.put(email, entry(memberId));
+        }
+    }
+
+    // Forget an email, e.g. one a member has moved away from.
+    static void invalidate(String email) {
+        synchronized (entries) {
+            version++;
+            entries.remove(email);
+        }
+    }
+
+    // Forget every cached email.
+    public static void clear() {
+        synchronized (entries) {
+            version++;
+            entries.clear();
+        }
+    }
+
+    public static long getHits() { return hits.get(); }
+
+    public static long getMisses() { return misses.get(); }
+
+    private static Entry entry(Integer memberId) {
+        long ttl = memberId == null ? negativeTtlMillis : ttlMillis;
+        return new Entry(memberId, System.currentTimeMillis() + ttl);
+    }
+}
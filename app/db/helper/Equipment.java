@@ -27,12 +27,12 @@ public class Equipment {
                     is_operational
                 ) VALUES (?, ?, ?)
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, roomId);
-            pstmt.setString(2, name);
-            pstmt.setBoolean(3, isOperational);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, roomId);
+                pstmt.setString(2, name);
+                pstmt.setBoolean(3, isOperational);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -49,13 +49,12 @@ public class Equipment {
      */
     public static boolean updateRoom(Connection conn, Integer equipmentId, Integer roomId) {
         try {
-            if (!(exists(conn, equipmentId))) return false;
             String query = "UPDATE equipment SET room_id = ? WHERE equipment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, roomId);
-            pstmt.setInt(2, equipmentId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, roomId);
+                pstmt.setInt(2, equipmentId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -72,13 +71,12 @@ public class Equipment {
      */
     public static boolean updateName(Connection conn, Integer equipmentId, String name) {
         try {
-            if (!(exists(conn, equipmentId))) return false;
             String query = "UPDATE equipment SET name = ? WHERE equipment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, name);
-            pstmt.setInt(2, equipmentId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, name);
+                pstmt.setInt(2, equipmentId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -99,17 +97,16 @@ public class Equipment {
         boolean isOperational
     ) {
         try {
-            if (!exists(conn, equipmentId)) return false;
             String query = """
                 UPDATE equipment
                     SET is_operational = ?
                     WHERE equipment_id = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setBoolean(1, isOperational);
-            pstmt.setInt(2, equipmentId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setBoolean(1, isOperational);
+                pstmt.setInt(2, equipmentId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -125,16 +122,15 @@ public class Equipment {
      */
     public static Integer getRoomId(Connection conn, Integer equipmentId) {
         try {
-            if (!exists(conn, equipmentId)) return null;
-            String query = "SELECT room_id FROM equipment WHERE equipment = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, equipmentId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer id = rs.getInt("room_id");
-            pstmt.close();
-            rs.close();
-            return id;
+            String query = "SELECT room_id FROM equipment WHERE equipment_id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, equipmentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer id = rs.getInt("room_id");
+                    return id;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -149,16 +145,15 @@ public class Equipment {
      */
     public static String getName(Connection conn, Integer equipmentId) {
         try {
-            if (!exists(conn, equipmentId)) return null;
             String query = "SELECT name FROM equipment WHERE equipment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, equipmentId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String name = rs.getString("name");
-            pstmt.close();
-            rs.close();
-            return name;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, equipmentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String name = rs.getString("name");
+                    return name;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -173,16 +168,15 @@ public class Equipment {
      */
     public static boolean isOperational(Connection conn, Integer equipmentId) {
         try {
-            if (!exists(conn, equipmentId)) return false;
             String query = "SELECT is_operational FROM equipment WHERE equipment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, equipmentId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            boolean isOperational = rs.getBoolean("is_operational");
-            pstmt.close();
-            rs.close();
-            return isOperational;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, equipmentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return false;
+                    boolean isOperational = rs.getBoolean("is_operational");
+                    return isOperational;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -198,13 +192,13 @@ public class Equipment {
     public static boolean exists(Connection conn, Integer equipmentId) {
         try {
             String query = "SELECT equipment_id FROM equipment WHERE equipment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, equipmentId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, equipmentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
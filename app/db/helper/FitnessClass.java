@@ -10,42 +10,44 @@ public class FitnessClass {
      * @param conn The connection to the database.
      * @param trainerId The ID of the trainer.
      * @param roomId The ID of the room.
+     * @param name The name of the class.
      * @param capacity The capacity of the class.
      * @param startTimestamp The starting timestamp of the session.
      * @param endTimestamp The end timestamp of the session.
-     * @return True if successfully added, false otherwise.
+     * @return True if successfully added, false if it overlaps another class or failed.
      */
     public static boolean add(
         Connection conn,
         Integer trainerId,
         Integer roomId,
+        String name,
         Integer capacity,
         Timestamp startTimestamp,
         Timestamp endTimestamp
     ) {
         try {
-            // Prevent a trainer from registering for creating a conflicting class.
-            if (isConflicting(conn, trainerId, roomId, startTimestamp, endTimestamp))
-                return false;
+            // Overlapping classes of the trainer or in the room are rejected by the database.
             String query = """
                 INSERT INTO classes (
                     trainer_id,
                     room_id,
-                    capacity
+                    name,
+                    capacity,
                     start_timestamp,
                     end_timestamp
-                ) VALUES (?, ?, ?, ?, ?)
+                ) VALUES (?, ?, ?, ?, ?, ?)
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            pstmt.setInt(2, roomId);
-            pstmt.setInt(3, capacity);
-            pstmt.setTimestamp(4, startTimestamp);
-            pstmt.setTimestamp(5, endTimestamp);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, trainerId);
+                pstmt.setInt(2, roomId);
+                pstmt.setString(3, name);
+                pstmt.setInt(4, capacity);
+                pstmt.setTimestamp(5, startTimestamp);
+                pstmt.setTimestamp(6, endTimestamp);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
-            Terminal.exception(e);
+            if (!Utilities.isBookingConflict(e)) Terminal.exception(e);
             return false;
         }
         return true;
@@ -59,12 +61,11 @@ public class FitnessClass {
      */
     public static boolean delete(Connection conn, Integer classId) {
         try {
-            if (!(exists(conn, classId))) return false;
             String query = "DELETE FROM classes WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -81,15 +82,14 @@ public class FitnessClass {
      */
     public static boolean updateTrainer(Connection conn, Integer classId, Integer trainerId) {
         try {
-            if (!(exists(conn, classId))) return false;
             String query = "UPDATE classes SET trainer_id = ? WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            pstmt.setInt(2, classId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, trainerId);
+                pstmt.setInt(2, classId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
-            Terminal.exception(e);
+            if (!Utilities.isBookingConflict(e)) Terminal.exception(e);
             return false;
         }
         return true;
@@ -104,15 +104,14 @@ public class FitnessClass {
      */
     public static boolean updateRoom(Connection conn, Integer classId, Integer roomId) {
         try {
-            if (!(exists(conn, classId))) return false;
             String query = "UPDATE classes SET room_id = ? WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, roomId);
-            pstmt.setInt(2, classId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, roomId);
+                pstmt.setInt(2, classId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
-            Terminal.exception(e);
+            if (!Utilities.isBookingConflict(e)) Terminal.exception(e);
             return false;
         }
         return true;
@@ -127,13 +126,12 @@ public class FitnessClass {
      */
     public static boolean updateName(Connection conn, Integer classId, String name) {
         try {
-            if (!(exists(conn, classId))) return false;
             String query = "UPDATE classes SET name = ? WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, name);
-            pstmt.setInt(2, classId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, name);
+                pstmt.setInt(2, classId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -150,15 +148,14 @@ public class FitnessClass {
      */
     public static boolean updateStart(Connection conn, Integer classId, Timestamp ts) {
         try {
-            if (!(exists(conn, classId))) return false;
             String query = "UPDATE classes SET start_timestamp = ? WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setTimestamp(1, ts);
-            pstmt.setInt(2, classId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setTimestamp(1, ts);
+                pstmt.setInt(2, classId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
-            Terminal.exception(e);
+            if (!Utilities.isBookingConflict(e)) Terminal.exception(e);
             return false;
         }
         return true;
@@ -173,15 +170,14 @@ public class FitnessClass {
      */
     public static boolean updateEnd(Connection conn, Integer classId, Timestamp ts) {
         try {
-            if (!(exists(conn, classId))) return false;
             String query = "UPDATE classes SET end_timestamp = ? WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setTimestamp(1, ts);
-            pstmt.setInt(2, classId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setTimestamp(1, ts);
+                pstmt.setInt(2, classId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
-            Terminal.exception(e);
+            if (!Utilities.isBookingConflict(e)) Terminal.exception(e);
             return false;
         }
         return true;
@@ -195,16 +191,15 @@ public class FitnessClass {
      */
     public static String getName(Connection conn, Integer classId) {
         try {
-            if (!exists(conn, classId)) return null;
             String query = "SELECT name FROM classes WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String name = rs.getString("name");
-            pstmt.close();
-            rs.close();
-            return name;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String name = rs.getString("name");
+                    return name;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -219,16 +214,15 @@ public class FitnessClass {
      */
     public static Integer getCapacity(Connection conn, Integer classId) {
         try {
-            if (!(exists(conn, classId))) return null;
             String query = "SELECT capacity FROM classes WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer capacity = rs.getInt("capacity");
-            pstmt.close();
-            rs.close();
-            return capacity;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer capacity = rs.getInt("capacity");
+                    return capacity;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -243,16 +237,15 @@ public class FitnessClass {
      */
     public static Timestamp getStart(Connection conn, Integer classId) {
         try {
-            if (!(exists(conn, classId))) return null;
             String query = "SELECT start_timestamp FROM classes WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Timestamp ts = rs.getTimestamp("start_tinestamp");
-            pstmt.close();
-            rs.close();
-            return ts;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Timestamp ts = rs.getTimestamp("start_timestamp");
+                    return ts;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -267,16 +260,15 @@ public class FitnessClass {
      */
     public static Timestamp getEnd(Connection conn, Integer classId) {
         try {
-            if (!(exists(conn, classId))) return null;
             String query = "SELECT end_timestamp FROM classes WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Timestamp ts = rs.getTimestamp("end_timestamp");
-            pstmt.close();
-            rs.close();
-            return ts;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Timestamp ts = rs.getTimestamp("end_timestamp");
+                    return ts;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -295,39 +287,42 @@ public class FitnessClass {
      */
     public static boolean isConflicting(
         Connection conn,
-        Integer memberId,
+        Integer trainerId,
         Integer roomId,
         Timestamp startTimestamp,
         Timestamp endTimestamp
     ) {
         try {
-            // Get all the classes of the trainer.
+            // Check the classes of the trainer and the classes held in the room.
             String query = """
-                SELECT start_timestamp, end_timestamp
-                    FROM classes
-                    WHERE trainer_id = ?
-                        OR room_id = ?
+                SELECT EXISTS (
+                    SELECT 1
+                        FROM classes
+                        WHERE trainer_id = ?
+                            AND slot && tsrange(?, ?)
+                ) OR EXISTS (
+                    SELECT 1
+                        FROM classes
+                        WHERE room_id = ?
+                            AND slot && tsrange(?, ?)
+                ) AS conflicting
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            pstmt.setInt(2, roomId);
-            ResultSet rs = pstmt.executeQuery();
-
-            // Check each class for scheduling conflicts.
-            while(rs.next()) {
-                Timestamp st = rs.getTimestamp("start_timestamp");
-                Timestamp et = rs.getTimestamp("end_timestamp");
-                if (Utilities.overlaps(startTimestamp, endTimestamp, st, et))
-                    return true;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, trainerId);
+                pstmt.setTimestamp(2, startTimestamp);
+                pstmt.setTimestamp(3, endTimestamp);
+                pstmt.setInt(4, roomId);
+                pstmt.setTimestamp(5, startTimestamp);
+                pstmt.setTimestamp(6, endTimestamp);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return rs.getBoolean("conflicting");
+                }
             }
-
-            rs.close();
-
         } catch (Exception e) {
             Terminal.exception(e);
-            return true;
         }
-        return false;
+        return true;
     }
 
     /**
@@ -339,13 +334,13 @@ public class FitnessClass {
     public static boolean exists(Connection conn, Integer classId) {
         try {
             String query = "SELECT class_id FROM classes WHERE class_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, classId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -9,6 +9,7 @@ public class FitnessGoal {
     /**
      * Insert a fitness goal into the fitness goals table.
      * The goal is marked incomplete by default.
+     * Nothing is inserted if the goal type does not exist.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
      * @param typeId The fitness goal type.
@@ -35,17 +36,20 @@ public class FitnessGoal {
                     target_date,
                     start_date,
                     is_completed
-                ) VALUES (?, ?, ?, ?, ?, ?)
+                )
+                SELECT ?, type_id, ?, ?::date, ?::date, ?
+                    FROM goal_types
+                    WHERE type_id = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            pstmt.setInt(2, typeId);
-            pstmt.setFloat(3, targetValue);
-            pstmt.setDate(4, targetDate);
-            pstmt.setDate(5, startDate);
-            pstmt.setBoolean(6, false);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                pstmt.setFloat(2, targetValue);
+                pstmt.setDate(3, targetDate);
+                pstmt.setDate(4, startDate);
+                pstmt.setBoolean(5, false);
+                pstmt.setInt(6, typeId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -62,13 +66,12 @@ public class FitnessGoal {
      */
     public static boolean updateType(Connection conn, Integer goalId, Integer typeId) {
         try {
-            if (!(exists(conn, goalId))) return false;
             String query = "UPDATE fitness_goals SET type_id = ? WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, typeId);
-            pstmt.setInt(2, goalId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, typeId);
+                pstmt.setInt(2, goalId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -85,13 +88,12 @@ public class FitnessGoal {
      */
     public static boolean updateTargetValue(Connection conn, Integer goalId, Float value) {
         try {
-            if (!(exists(conn, goalId))) return false;
             String query = "UPDATE fitness_goals SET target_value = ? WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setFloat(1, value);
-            pstmt.setInt(2, goalId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setFloat(1, value);
+                pstmt.setInt(2, goalId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -101,6 +103,7 @@ public class FitnessGoal {
 
     /**
      * Update the target date of a fitness goal.
+     * The target date may not be before the start date of the goal.
      * @param conn The connection to the database.
      * @param goalId The ID of the goal.
      * @param date The date to be modified to.
@@ -108,14 +111,18 @@ public class FitnessGoal {
      */
     public static boolean updateTargetDate(Connection conn, Integer goalId, Date date) {
         try {
-            if (!(exists(conn, goalId))) return false;
-            if (date.before(getStartDate(conn, goalId))) return false;
-            String query = "UPDATE fitness_goals SET target_date = ? WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setDate(1, date);
-            pstmt.setInt(2, goalId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            String query = """
+                UPDATE fitness_goals
+                    SET target_date = ?
+                    WHERE goal_id = ?
+                        AND start_date <= ?
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setDate(1, date);
+                pstmt.setInt(2, goalId);
+                pstmt.setDate(3, date);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -125,6 +132,7 @@ public class FitnessGoal {
 
     /**
      * Update the start date of a fitness goal.
+     * The start date may not be after the target date of the goal.
      * @param conn The connection to the database.
      * @param goalId The ID of the goal.
      * @param date The date to be modified to.
@@ -132,14 +140,18 @@ public class FitnessGoal {
      */
     public static boolean updateStartDate(Connection conn, Integer goalId, Date date) {
         try {
-            if (!(exists(conn, goalId))) return false;
-            if (getTargetDate(conn, goalId).before(date)) return false;
-            String query = "UPDATE fitness_goals SET start_date = ? WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setDate(1, date);
-            pstmt.setInt(2, goalId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            String query = """
+                UPDATE fitness_goals
+                    SET start_date = ?
+                    WHERE goal_id = ?
+                        AND target_date >= ?
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setDate(1, date);
+                pstmt.setInt(2, goalId);
+                pstmt.setDate(3, date);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -155,17 +167,16 @@ public class FitnessGoal {
      */
     public static boolean markedCompleted(Connection conn, Integer goalId) {
         try {
-            if (!(exists(conn, goalId))) return false;
             String query = """
                 UPDATE fitness_goals
                     SET is_completed = ?
                     WHERE goal_id = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setBoolean(1, true);
-            pstmt.setInt(2, goalId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setBoolean(1, true);
+                pstmt.setInt(2, goalId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -181,16 +192,15 @@ public class FitnessGoal {
      */
     public static Integer getTypeId(Connection conn, Integer goalId) {
         try {
-            if (!exists(conn, goalId)) return null;
             String query = "SELECT type_id FROM fitness_goals WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, goalId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer id = rs.getInt("type_id");
-            pstmt.close();
-            rs.close();
-            return id;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, goalId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer id = rs.getInt("type_id");
+                    return id;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -205,16 +215,15 @@ public class FitnessGoal {
      */
     public static Float getTargetValue(Connection conn, Integer goalId) {
         try {
-            if (!exists(conn, goalId)) return null;
             String query = "SELECT target_value FROM fitness_goals WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, goalId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Float amount = rs.getFloat("target_value");
-            pstmt.close();
-            rs.close();
-            return amount;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, goalId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Float amount = rs.getFloat("target_value");
+                    return amount;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -229,16 +238,15 @@ public class FitnessGoal {
      */
     public static Date getTargetDate(Connection conn, Integer goalId) {
         try {
-            if (!exists(conn, goalId)) return null;
             String query = "SELECT target_date FROM fitness_goals WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, goalId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date date = rs.getDate("target_date");
-            pstmt.close();
-            rs.close();
-            return date;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, goalId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Date date = rs.getDate("target_date");
+                    return date;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -253,16 +261,15 @@ public class FitnessGoal {
      */
     public static Date getStartDate(Connection conn, Integer goalId) {
         try {
-            if (!exists(conn, goalId)) return null;
             String query = "SELECT start_date FROM fitness_goals WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, goalId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date date = rs.getDate("start_date");
-            pstmt.close();
-            rs.close();
-            return date;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, goalId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Date date = rs.getDate("start_date");
+                    return date;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -277,16 +284,15 @@ public class FitnessGoal {
      */
     public static boolean isCompleted(Connection conn, Integer goalId) {
         try {
-            if (!exists(conn, goalId)) return false;
             String query = "SELECT is_completed FROM fitness_goals WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, goalId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            boolean isCompleted = rs.getBoolean("is_completed");
-            pstmt.close();
-            rs.close();
-            return isCompleted;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, goalId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return false;
+                    boolean isCompleted = rs.getBoolean("is_completed");
+                    return isCompleted;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -295,25 +301,37 @@ public class FitnessGoal {
 
     /**
      * Get the IDs of incomplete goals of a member by ID.
+     * Boxes every ID; getIncompleteGoalIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
      * @return The IDs of the incomplete goals.
      */
     public static LinkedList<Integer> getIncompleteGoals(Connection conn, Integer memberId) {
+        IntList ids = getIncompleteGoalIds(conn, memberId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of incomplete goals of a member by ID.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The primitive IDs of the incomplete goals.
+     */
+    public static IntList getIncompleteGoalIds(Connection conn, Integer memberId) {
         try {
             String query = """
                 SELECT goal_id FROM fitness_goals
                     WHERE member_id = ?
                         AND is_completed = FALSE
             """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("goal_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("goal_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -322,21 +340,75 @@ public class FitnessGoal {
 
     /**
      * Get the IDs of goals of a member by ID.
+     * Boxes every ID; getGoalIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
      * @return The IDs of the goals.
      */
     public static LinkedList<Integer> getGoals(Connection conn, Integer memberId) {
+        IntList ids = getGoalIds(conn, memberId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of goals of a member by ID.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The primitive IDs of the goals.
+     */
+    public static IntList getGoalIds(Connection conn, Integer memberId) {
         try {
             String query = "SELECT goal_id FROM fitness_goals WHERE member_id = ? ORDER BY target_date";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("goal_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("goal_id"));
+                    return ids;
+                }
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
+    /**
+     * Get the goals of a member by ID joined with their goal types in a single query.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The goals of the member ordered by target date.
+     */
+    public static LinkedList<FitnessGoalView> listWithTypes(Connection conn, Integer memberId) {
+        try {
+            String query = """
+                SELECT g.goal_id, g.member_id, g.type_id, t.name, t.unit,
+                        g.target_value, g.target_date, g.start_date, g.is_completed
+                    FROM fitness_goals g
+                    JOIN goal_types t ON t.type_id = g.type_id
+                    WHERE g.member_id = ?
+                    ORDER BY g.target_date
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    LinkedList<FitnessGoalView> goals = new LinkedList<>();
+                    while (rs.next()) {
+                        goals.add(new FitnessGoalView(
+                            rs.getInt("goal_id"),
+                            rs.getInt("member_id"),
+                            rs.getInt("type_id"),
+                            rs.getString("name"),
+                            rs.getString("unit"),
+                            rs.getFloat("target_value"),
+                            rs.getDate("target_date"),
+                            rs.getDate("start_date"),
+                            rs.getBoolean("is_completed")
+                        ));
+                    }
+                    return goals;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -352,13 +424,13 @@ public class FitnessGoal {
     public static boolean exists(Connection conn, Integer goalId) {
         try {
             String query = "SELECT goal_id FROM fitness_goals WHERE goal_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, goalId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, goalId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -0,0 +1,25 @@
+import java.sql.Date;
+
+/**
+ * Record to hold a fitness goal joined with its goal type.
+ * @param goalId The ID of the goal.
+ * @param memberId The ID of the member.
+ * @param typeId The ID of the goal type.
+ * @param typeName The name of the goal type.
+ * @param typeUnit The unit of the goal type.
+ * @param targetValue The target value of the goal.
+ * @param targetDate The target date to complete the goal by.
+ * @param startDate The date the member starts the goal.
+ * @param completed True if the goal is completed, false otherwise.
+ */
+public record FitnessGoalView(
+    int goalId,
+    int memberId,
+    int typeId,
+    String typeName,
+    String typeUnit,
+    float targetValue,
+    Date targetDate,
+    Date startDate,
+    boolean completed
+) {}
@@ -2,6 +2,7 @@ import java.sql.*;
 
 /**
  * Helper class to handle the goal types table in the database.
+ * Lookups are served from the reference data cache.
  */
 public class GoalType {
     
@@ -13,16 +14,7 @@ public class GoalType {
      */
     public static String getName(Connection conn, Integer typeId) {
         try {
-            if (!exists(conn, typeId)) return null;
-            String query = "SELECT name FROM goal_types WHERE type_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, typeId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String name = rs.getString("name");
-            pstmt.close();
-            rs.close();
-            return name;
+            return ReferenceData.goalTypeName(conn, typeId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -37,16 +29,7 @@ public class GoalType {
      */
     public static String getUnit(Connection conn, Integer typeId) {
         try {
-            if (!exists(conn, typeId)) return null;
-            String query = "SELECT unit FROM goal_types WHERE type_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, typeId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String unit = rs.getString("unit");
-            pstmt.close();
-            rs.close();
-            return unit;
+            return ReferenceData.goalTypeUnit(conn, typeId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -61,14 +44,7 @@ public class GoalType {
      */
     public static boolean exists(Connection conn, Integer typeId) {
         try {
-            String query = "SELECT type_id FROM goal_types WHERE type_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, typeId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            return ReferenceData.goalTypeExists(conn, typeId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
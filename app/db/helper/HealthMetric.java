@@ -1,15 +1,83 @@
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Helper class to handle the health metrics table in the database.
  */
 public class HealthMetric {
-    
+
+    // Number of rows fetched per round trip when reading a member's history.
+    private static final int HISTORY_FETCH_SIZE = 500;
+
+    // Folds the rows of an "inserted" CTE into the rollups of every period.
+    private static final String MERGE_ROLLUPS = """
+        INSERT INTO health_metric_rollups AS r
+            SELECT i.member_id,
+                    p.period,
+                    date_trunc(p.period, i.timestamp),
+                    COUNT(*),
+                    MIN(i.heart_rate), MAX(i.heart_rate), SUM(i.heart_rate),
+                    MIN(i.body_fat), MAX(i.body_fat), SUM(i.body_fat),
+                    MIN(i.weight), MAX(i.weight), SUM(i.weight),
+                    MIN(i.height), MAX(i.height), SUM(i.height)
+                FROM inserted i
+                CROSS JOIN (VALUES ('day'), ('week'), ('month')) p(period)
+                WHERE i.timestamp IS NOT NULL
+                GROUP BY i.member_id, p.period, date_trunc(p.period, i.timestamp)
+            ON CONFLICT (member_id, period, bucket_start) DO UPDATE SET
+                sample_count = r.sample_count + EXCLUDED.sample_count,
+                heart_rate_min = LEAST(r.heart_rate_min, EXCLUDED.heart_rate_min),
+                heart_rate_max = GREATEST(r.heart_rate_max, EXCLUDED.heart_rate_max),
+                heart_rate_sum = r.heart_rate_sum + EXCLUDED.heart_rate_sum,
+                body_fat_min = LEAST(r.body_fat_min, EXCLUDED.body_fat_min),
+                body_fat_max = GREATEST(r.body_fat_max, EXCLUDED.body_fat_max),
+                body_fat_sum = r.body_fat_sum + EXCLUDED.body_fat_sum,
+                weight_min = LEAST(r.weight_min, EXCLUDED.weight_min),
+                weight_max = GREATEST(r.weight_max, EXCLUDED.weight_max),
+                weight_sum = r.weight_sum + EXCLUDED.weight_sum,
+                height_min = LEAST(r.height_min, EXCLUDED.height_min),
+                height_max = GREATEST(r.height_max, EXCLUDED.height_max),
+                height_sum = r.height_sum + EXCLUDED.height_sum
+        """;
+
+    // Moves each member's latest metric forward to the newest row of an "inserted" CTE.
+    private static final String MERGE_LATEST = """
+        INSERT INTO member_latest_metric AS l
+            SELECT DISTINCT ON (member_id)
+                    member_id, metric_id, timestamp, heart_rate, body_fat, weight, height
+                FROM inserted
+                WHERE timestamp IS NOT NULL
+                ORDER BY member_id, timestamp DESC, metric_id DESC
+            ON CONFLICT (member_id) DO UPDATE SET
+                metric_id = EXCLUDED.metric_id,
+                timestamp = EXCLUDED.timestamp,
+                heart_rate = EXCLUDED.heart_rate,
+                body_fat = EXCLUDED.body_fat,
+                weight = EXCLUDED.weight,
+                height = EXCLUDED.height
+                WHERE (EXCLUDED.timestamp, EXCLUDED.metric_id) > (l.timestamp, l.metric_id)
+        """;
+
+    // Applies an "inserted" CTE of new health metrics to the rollups and latest metrics and returns its rows.
+    private static final String MERGE_INSERTED = """
+        , rollups AS (
+        """ + MERGE_ROLLUPS + """
+        ), latest AS (
+        """ + MERGE_LATEST + """
+        )
+        SELECT metric_id, member_id, timestamp, heart_rate, body_fat, weight, height FROM inserted
+        """;
+
     /**
      * Insert a health metric record into the health metrics table.
      * Automatically records the current timestamp as the timestamp of the record.
+     * The member's daily, weekly and monthly rollups and latest metric are updated in the same statement.
+     * Inside a transaction the latest metric cache is left alone; invalidate
+     * the member in LatestMetricCache after committing.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
      * @param heartRate The heart rate of the member recorded in beats per minute.
@@ -28,24 +96,92 @@ public class HealthMetric {
     ) {
         try {
             String query = """
-                INSERT INTO health_metrics (
-                    member_id,
-                    timestamp,
-                    heart_rate,
-                    body_fat,
-                    weight,
-                    height
-                ) VALUES (?, ?, ?, ?, ?, ?)
-                """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            pstmt.setTimestamp(2, java.sql.Timestamp.valueOf(LocalDateTime.now()));
-            pstmt.setInt(3, heartRate);
-            pstmt.setFloat(4, bodyFat);
-            pstmt.setInt(5, weight);
-            pstmt.setInt(6, height);
-            pstmt.executeUpdate();
-            pstmt.close();
+                WITH inserted AS (
+                    INSERT INTO health_metrics (
+                        member_id,
+                        timestamp,
+                        heart_rate,
+                        body_fat,
+                        weight,
+                        height
+                    ) VALUES (?, ?, ?, ?, ?, ?)
+                    RETURNING metric_id, member_id, timestamp, heart_rate, body_fat, weight, height
+                )
+                """ + MERGE_INSERTED;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                pstmt.setTimestamp(2, java.sql.Timestamp.valueOf(LocalDateTime.now()));
+                pstmt.setInt(3, heartRate);
+                pstmt.setFloat(4, bodyFat);
+                pstmt.setInt(5, weight);
+                pstmt.setInt(6, height);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) remember(conn, read(rs));
+                }
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Insert many health metric records, e.g. samples synced from a wearable, in one statement.
+     * The record IDs are ignored and assigned by the database. The rollups of
+     * every affected bucket are updated once per bucket rather than once per record,
+     * and each member's latest metric once per member.
+     * Inside a transaction the latest metric cache is left alone; clear
+     * LatestMetricCache after committing.
+     * @param conn The connection to the database.
+     * @param records The health metric records to be added.
+     * @return True if successfully added, false otherwise.
+     */
+    public static boolean addAll(Connection conn, List<HealthMetricRecord> records) {
+        if (records.isEmpty()) return true;
+        try {
+            int n = records.size();
+            Integer[] memberIds = new Integer[n];
+            Timestamp[] timestamps = new Timestamp[n];
+            Integer[] heartRates = new Integer[n];
+            Float[] bodyFats = new Float[n];
+            Integer[] weights = new Integer[n];
+            Integer[] heights = new Integer[n];
+            int i = 0;
+            for (HealthMetricRecord record : records) {
+                memberIds[i] = record.memberId();
+                timestamps[i] = record.timestamp();
+                heartRates[i] = record.heartRate();
+                bodyFats[i] = record.bodyFat();
+                weights[i] = record.weight();
+                heights[i] = record.height();
+                i++;
+            }
+            String query = """
+                WITH inserted AS (
+                    INSERT INTO health_metrics (
+                        member_id,
+                        timestamp,
+                        heart_rate,
+                        body_fat,
+                        weight,
+                        height
+                    )
+                    SELECT * FROM unnest(?::int[], ?::timestamp[], ?::int[], ?::float4[], ?::int[], ?::int[])
+                    RETURNING metric_id, member_id, timestamp, heart_rate, body_fat, weight, height
+                )
+                """ + MERGE_INSERTED;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setArray(1, conn.createArrayOf("int4", memberIds));
+                pstmt.setArray(2, conn.createArrayOf("timestamp", timestamps));
+                pstmt.setArray(3, conn.createArrayOf("int4", heartRates));
+                pstmt.setArray(4, conn.createArrayOf("float4", bodyFats));
+                pstmt.setArray(5, conn.createArrayOf("int4", weights));
+                pstmt.setArray(6, conn.createArrayOf("int4", heights));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) remember(conn, read(rs));
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -53,6 +189,117 @@ public class HealthMetric {
         return true;
     }
 
+    /**
+     * Rebuild every health metric rollup from the health metrics table.
+     * For loads that bypass add and addAll, such as COPY.
+     * @param conn The connection to the database.
+     * @return The number of rollup rows written.
+     */
+    public static long rebuildRollups(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM health_metric_rollups");
+            return stmt.executeLargeUpdate("""
+                WITH inserted AS (
+                    SELECT member_id, timestamp, heart_rate, body_fat, weight, height
+                        FROM health_metrics
+                )
+                """ + MERGE_ROLLUPS);
+        }
+    }
+
+    /**
+     * Rebuild the latest health metric of every member from the health metrics table.
+     * For loads that bypass add and addAll, such as COPY.
+     * Inside a transaction the latest metric cache is left alone; clear
+     * LatestMetricCache after committing.
+     * @param conn The connection to the database.
+     * @return The number of members with a latest metric.
+     */
+    public static long rebuildLatest(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM member_latest_metric");
+            long rows = stmt.executeLargeUpdate("""
+                WITH inserted AS (
+                    SELECT metric_id, member_id, timestamp, heart_rate, body_fat, weight, height
+                        FROM health_metrics
+                )
+                """ + MERGE_LATEST);
+            if (conn.getAutoCommit()) LatestMetricCache.clear();
+            return rows;
+        }
+    }
+
+    // Cache a record just inserted once it is committed; a transaction may still roll back.
+    private static void remember(Connection conn, HealthMetricRecord record) throws SQLException {
+        if (record.timestamp() == null) return;
+        if (conn.getAutoCommit()) LatestMetricCache.offer(record.memberId(), record);
+    }
+
+    /**
+     * Get the rollups of a member for trend charts, oldest bucket first.
+     * Reads one row per bucket, however many records fall into it.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @param period The size of the buckets.
+     * @param from The earliest bucket start to include, or null for no lower bound.
+     * @param to The latest bucket start to include, or null for no upper bound.
+     * @return The rollups of the member.
+     */
+    public static LinkedList<HealthMetricRollup> getRollups(
+        Connection conn,
+        Integer memberId,
+        RollupPeriod period,
+        Timestamp from,
+        Timestamp to
+    ) {
+        try {
+            String query = """
+                SELECT *
+                    FROM health_metric_rollups
+                    WHERE member_id = ?
+                        AND period = ?
+                        AND bucket_start >= COALESCE(date_trunc(?, ?::timestamp), '-infinity'::timestamp)
+                        AND bucket_start <= COALESCE(?, 'infinity'::timestamp)
+                    ORDER BY bucket_start
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                pstmt.setString(2, period.sqlName());
+                pstmt.setString(3, period.sqlName());
+                pstmt.setTimestamp(4, from);
+                pstmt.setTimestamp(5, to);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    LinkedList<HealthMetricRollup> rollups = new LinkedList<>();
+                    while (rs.next()) {
+                        int count = rs.getInt("sample_count");
+                        rollups.add(new HealthMetricRollup(
+                            rs.getInt("member_id"),
+                            period,
+                            rs.getTimestamp("bucket_start"),
+                            count,
+                            rs.getInt("heart_rate_min"),
+                            rs.getInt("heart_rate_max"),
+                            (double) rs.getLong("heart_rate_sum") / count,
+                            rs.getDouble("body_fat_min"),
+                            rs.getDouble("body_fat_max"),
+                            rs.getDouble("body_fat_sum") / count,
+                            rs.getInt("weight_min"),
+                            rs.getInt("weight_max"),
+                            (double) rs.getLong("weight_sum") / count,
+                            rs.getInt("height_min"),
+                            rs.getInt("height_max"),
+                            (double) rs.getLong("height_sum") / count
+                        ));
+                    }
+                    return rollups;
+                }
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
     /**
      * Get the timestamp of a health metric record by ID.
      * @param conn The connection to the database.
@@ -61,16 +308,15 @@ public class HealthMetric {
      */
     public static Timestamp getTimestamp(Connection conn, Integer metricId) {
         try {
-            if (!exists(conn, metricId)) return null;
             String query = "SELECT timestamp FROM health_metrics WHERE metric_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, metricId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Timestamp ts = rs.getTimestamp("timestamp");
-            pstmt.close();
-            rs.close();
-            return ts;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, metricId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Timestamp ts = rs.getTimestamp("timestamp");
+                    return ts;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -85,16 +331,15 @@ public class HealthMetric {
      */
     public static Integer getHeartRate(Connection conn, Integer metricId) {
         try {
-            if (!exists(conn, metricId)) return null;
             String query = "SELECT heart_rate FROM health_metrics WHERE metric_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, metricId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer hr = rs.getInt("heart_rate");
-            pstmt.close();
-            rs.close();
-            return hr;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, metricId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer hr = rs.getInt("heart_rate");
+                    return hr;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -109,16 +354,15 @@ public class HealthMetric {
      */
     public static Float getBodyFat(Connection conn, Integer metricId) {
         try {
-            if (!exists(conn, metricId)) return null;
             String query = "SELECT body_fat FROM health_metrics WHERE metric_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, metricId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Float bfp = rs.getFloat("body_fat");
-            pstmt.close();
-            rs.close();
-            return bfp;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, metricId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Float bfp = rs.getFloat("body_fat");
+                    return bfp;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -133,16 +377,15 @@ public class HealthMetric {
      */
     public static Integer getWeight(Connection conn, Integer metricId) {
         try {
-            if (!exists(conn, metricId)) return null;
             String query = "SELECT weight FROM health_metrics WHERE metric_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, metricId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer weight = rs.getInt("weight");
-            pstmt.close();
-            rs.close();
-            return weight;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, metricId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer weight = rs.getInt("weight");
+                    return weight;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -157,16 +400,15 @@ public class HealthMetric {
      */
     public static Integer getHeight(Connection conn, Integer metricId) {
         try {
-            if (!exists(conn, metricId)) return null;
             String query = "SELECT height FROM health_metrics WHERE metric_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, metricId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer height = rs.getInt("height");
-            pstmt.close();
-            rs.close();
-            return height;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, metricId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer height = rs.getInt("height");
+                    return height;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -177,60 +419,225 @@ public class HealthMetric {
      * Get the ID of the latest recorded health metric record of a member by ID.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
-     * @return The ID of the the latest record.
+     * @return The ID of the the latest record, or null if the member has none.
      */
     public static Integer getLatest(Connection conn, Integer memberId) {
+        HealthMetricRecord record = getLatestRecord(conn, memberId);
+        return record == null ? null : record.metricId();
+    }
+
+    /**
+     * Get the latest recorded health metric record of a member by ID.
+     * Served from the latest metric cache when possible, otherwise read by
+     * primary key from member_latest_metric, however long the history is.
+     * Of records sharing the latest timestamp, the one with the highest ID wins.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The latest record, or null if the member has none or it could not be read.
+     */
+    public static HealthMetricRecord getLatestRecord(Connection conn, Integer memberId) {
         try {
-            String query = """
-                SELECT metric_id FROM health_metrics
-                    WHERE timestamp =
-                        (SELECT MAX(timestamp)
-                            FROM health_metrics
-                            WHERE member_id = ?)
-                        AND member_id = ?
-                """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            pstmt.setInt(2, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer id = rs.getInt("metric_id");
-            pstmt.close();
-            rs.close();
-            return id;
+            return readLatestRecord(conn, memberId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
         return null;
     }
 
+    /**
+     * Get the latest recorded health metric record of a member by ID, like getLatestRecord.
+     * A failed read is thrown rather than returned as null, so it cannot be
+     * mistaken for a member without records. Inside a transaction the cache is
+     * bypassed, since the transaction may see its own uncommitted records.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The latest record, or null if the member has none.
+     * @throws SQLException If the record could not be read.
+     */
+    public static HealthMetricRecord readLatestRecord(Connection conn, Integer memberId) throws SQLException {
+        boolean cache = conn.getAutoCommit();
+        if (cache) {
+            LatestMetricCache.Lookup cached = LatestMetricCache.get(memberId);
+            if (cached.cached()) return cached.record();
+        }
+        String query = """
+            SELECT metric_id, member_id, timestamp, heart_rate, body_fat, weight, height
+                FROM member_latest_metric
+                WHERE member_id = ?
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, memberId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                HealthMetricRecord record = rs.next() ? read(rs) : null;
+                if (cache) LatestMetricCache.offer(memberId, record);
+                return record;
+            }
+        }
+    }
+
     /**
      * Get the IDs of health metrics records of a member by ID.
+     * Boxes every ID; getRecordIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
      * @return The IDs of the health metric records.
      */
     public static LinkedList<Integer> getRecords(Connection conn, Integer memberId) {
+        IntList ids = getRecordIds(conn, memberId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of health metrics records of a member by ID.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The primitive IDs of the health metric records.
+     */
+    public static IntList getRecordIds(Connection conn, Integer memberId) {
         try {
             String query = """
                 SELECT metric_id FROM health_metrics
                     WHERE member_id = ?
                     ORDER BY timestamp DESC
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("metric_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("metric_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
         return null;
     }
 
+    /**
+     * Pass the IDs of the health metric records of a member, latest first, to an action.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @param fetchSize The number of rows fetched per round trip.
+     * @param action Receives each ID.
+     * @return True if every row was handled, false otherwise.
+     */
+    public static boolean forEachRecord(Connection conn, Integer memberId, int fetchSize, IntConsumer action) {
+        try {
+            String query = """
+                SELECT metric_id FROM health_metrics
+                    WHERE member_id = ?
+                    ORDER BY timestamp DESC
+                """;
+            Cursor.forEach(
+                conn,
+                query,
+                pstmt -> pstmt.setInt(1, memberId),
+                fetchSize,
+                rs -> action.accept(rs.getInt("metric_id"))
+            );
+        } catch (Exception e) {
+            Terminal.exception(e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the health metric records of a member by ID, latest first, in a single query.
+     * The rows are fetched in batches so long histories are not buffered all at once.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @param from The earliest timestamp to include, or null for no lower bound.
+     * @param to The latest timestamp to include, or null for no upper bound.
+     * @param limit The maximum number of records to return, or null for no limit.
+     * @return The health metric records.
+     */
+    public static LinkedList<HealthMetricRecord> getHistory(
+        Connection conn,
+        Integer memberId,
+        Timestamp from,
+        Timestamp to,
+        Integer limit
+    ) {
+        try {
+            String query = """
+                SELECT metric_id, member_id, timestamp, heart_rate, body_fat, weight, height
+                    FROM health_metrics
+                    WHERE member_id = ?
+                        AND timestamp >= COALESCE(?, '-infinity'::timestamp)
+                        AND timestamp <= COALESCE(?, 'infinity'::timestamp)
+                    ORDER BY timestamp DESC
+                    LIMIT ?
+                """;
+            LinkedList<HealthMetricRecord> records = new LinkedList<>();
+            Cursor.forEach(conn, query, pstmt -> {
+                pstmt.setInt(1, memberId);
+                pstmt.setTimestamp(2, from);
+                pstmt.setTimestamp(3, to);
+                if (limit == null) pstmt.setNull(4, Types.INTEGER);
+                else pstmt.setInt(4, limit);
+            }, HISTORY_FETCH_SIZE, rs -> records.add(read(rs)));
+            return records;
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
+    /**
+     * Pass every health metric record of a member, oldest first, to an action.
+     * Meant for exports: the records are fetched in batches and never held all at once.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @param fetchSize The number of rows fetched per round trip.
+     * @param action Receives each record.
+     * @return True if every record was handled, false otherwise.
+     */
+    public static boolean forEachHistory(
+        Connection conn,
+        Integer memberId,
+        int fetchSize,
+        Consumer<HealthMetricRecord> action
+    ) {
+        try {
+            String query = """
+                SELECT metric_id, member_id, timestamp, heart_rate, body_fat, weight, height
+                    FROM health_metrics
+                    WHERE member_id = ?
+                    ORDER BY timestamp
+                """;
+            Cursor.forEach(
+                conn,
+                query,
+                pstmt -> pstmt.setInt(1, memberId),
+                fetchSize,
+                rs -> action.accept(read(rs))
+            );
+        } catch (Exception e) {
+            Terminal.exception(e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Map the current row of a result set to a health metric record.
+     * @param rs The result set positioned on a health_metrics row.
+     * @return The health metric record.
+     */
+    static HealthMetricRecord read(ResultSet rs) throws SQLException {
+        return new HealthMetricRecord(
+            rs.getInt("metric_id"),
+            rs.getInt("member_id"),
+            rs.getTimestamp("timestamp"),
+            rs.getInt("heart_rate"),
+            rs.getFloat("body_fat"),
+            rs.getInt("weight"),
+            rs.getInt("height")
+        );
+    }
+
     /**
      * Check if a health metric record exists with the given ID.
      * @param conn The connection to the database.
@@ -240,13 +647,13 @@ public class HealthMetric {
     public static boolean exists(Connection conn, Integer metricId) {
         try {
             String query = "SELECT metric_id FROM health_metrics WHERE metric_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, metricId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, metricId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
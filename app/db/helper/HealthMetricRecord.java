@@ -0,0 +1,21 @@
+import java.sql.Timestamp;
+
+/**
+ * Record to hold a full row of the health metrics table.
+ * @param metricId The ID of the health metric record.
+ * @param memberId The ID of the member.
+ * @param timestamp The timestamp of the record.
+ * @param heartRate The heart rate of the member recorded in beats per minute.
+ * @param bodyFat The body fat of the member recorded in percentage.
+ * @param weight The weight of the member recorded in pounds.
+ * @param height The height of the member recorded in centimeters.
+ */
+public record HealthMetricRecord(
+    int metricId,
+    int memberId,
+    Timestamp timestamp,
+    int heartRate,
+    float bodyFat,
+    int weight,
+    int height
+) {}
@@ -0,0 +1,39 @@
+import java.sql.Timestamp;
+
+/**
+ * Record to hold the summary of a member's health metrics over one bucket of time.
+ * @param memberId The ID of the member.
+ * @param period The size of the bucket.
+ * @param bucketStart The start of the bucket.
+ * @param sampleCount The number of health metric records in the bucket.
+ * @param heartRateMin The lowest heart rate in beats per minute.
+ * @param heartRateMax The highest heart rate in beats per minute.
+ * @param heartRateAvg The average heart rate in beats per minute.
+ * @param bodyFatMin The lowest body fat in percentage.
+ * @param bodyFatMax The highest body fat in percentage.
+ * @param bodyFatAvg The average body fat in percentage.
+ * @param weightMin The lowest weight in pounds.
+ * @param weightMax The highest weight in pounds.
+ * @param weightAvg The average weight in pounds.
+ * @param heightMin The lowest height in centimeters.
+ * @param heightMax The highest height in centimeters.
+ * @param heightAvg The average height in centimeters.
+ */
+public record HealthMetricRollup(
+    int memberId,
+    RollupPeriod period,
+    Timestamp bucketStart,
+    int sampleCount,
+    int heartRateMin,
+    int heartRateMax,
+    double heartRateAvg,
+    double bodyFatMin,
+    double bodyFatMax,
+    double bodyFatAvg,
+    int weightMin,
+    int weightMax,
+    double weightAvg,
+    int heightMin,
+    int heightMax,
+    double heightAvg
+) {}
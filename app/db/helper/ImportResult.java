@@ -0,0 +1,9 @@
+/**
+ * Record to hold the outcome of a bulk import.
+ * @param imported The number of rows inserted.
+ * @param rejected The number of rows written to the reject file.
+ */
+public record ImportResult(
+    int imported,
+    int rejected
+) {}
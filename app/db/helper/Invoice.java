@@ -29,13 +29,13 @@ public class Invoice {
                     is_paid
                 ) VALUES (?, ?, ?, ?)
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            pstmt.setTimestamp(2, java.sql.Timestamp.valueOf(LocalDateTime.now()));
-            pstmt.setFloat(3, total);
-            pstmt.setBoolean(4, false);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                pstmt.setTimestamp(2, java.sql.Timestamp.valueOf(LocalDateTime.now()));
+                pstmt.setFloat(3, total);
+                pstmt.setBoolean(4, false);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -51,16 +51,15 @@ public class Invoice {
      */
     public static Timestamp getTimestamp(Connection conn, Integer invoiceId) {
         try {
-            if (!exists(conn, invoiceId)) return null;
             String query = "SELECT issue_timestamp FROM invoices WHERE invoice_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Timestamp ts = rs.getTimestamp("issue_timestamp");
-            pstmt.close();
-            rs.close();
-            return ts;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Timestamp ts = rs.getTimestamp("issue_timestamp");
+                    return ts;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -75,16 +74,15 @@ public class Invoice {
      */
     public static Float getTotal(Connection conn, Integer invoiceId) {
         try {
-            if (!exists(conn, invoiceId)) return null;
             String query = "SELECT total FROM invoices WHERE invoice_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Float total = rs.getFloat("total");
-            pstmt.close();
-            rs.close();
-            return total;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Float total = rs.getFloat("total");
+                    return total;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -93,21 +91,33 @@ public class Invoice {
 
     /**
      * Get the IDs of invoices of a member by ID.
+     * Boxes every ID; getInvoiceIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
      * @return The IDs of the invoices.
      */
     public static LinkedList<Integer> getInvoices(Connection conn, Integer memberId) {
+        IntList ids = getInvoiceIds(conn, memberId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of invoices of a member by ID.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The primitive IDs of the invoices.
+     */
+    public static IntList getInvoiceIds(Connection conn, Integer memberId) {
         try {
             String query = "SELECT invoice_id FROM invoices WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("invoice_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("invoice_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -122,16 +132,15 @@ public class Invoice {
      */
     public static boolean isPaid(Connection conn, Integer invoiceId) {
         try {
-            if (!exists(conn, invoiceId)) return false;
             String query = "SELECT is_paid FROM invoices WHERE invoice_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            boolean isOperational = rs.getBoolean("is_paid");
-            pstmt.close();
-            rs.close();
-            return isOperational;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return false;
+                    boolean isOperational = rs.getBoolean("is_paid");
+                    return isOperational;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -147,13 +156,13 @@ public class Invoice {
     public static boolean exists(Connection conn, Integer invoiceId) {
         try {
             String query = "SELECT invoice_id FROM invoices WHERE invoice_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -33,14 +33,14 @@ public class InvoiceItem {
                     total_price
                 ) VALUES (?, ?, ?, ?, ?)
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, itemNum);
-            pstmt.setString(2, itemType);
-            pstmt.setInt(3, quantity);
-            pstmt.setFloat(4, unitPrice);
-            pstmt.setFloat(5, totalPrice);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, itemNum);
+                pstmt.setString(2, itemType);
+                pstmt.setInt(3, quantity);
+                pstmt.setFloat(4, unitPrice);
+                pstmt.setFloat(5, totalPrice);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -57,22 +57,21 @@ public class InvoiceItem {
      */
     public static String getItemType(Connection conn, Integer invoiceId, Integer itemNum) {
         try {
-            if (!exists(conn, invoiceId, itemNum)) return null;
             String query = """
                 SELECT item_type
                     FROM invoice_items
                     WHERE invoice_id = ?
                         AND item_num = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            pstmt.setInt(2, itemNum);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String itemType = rs.getString("item_type");
-            pstmt.close();
-            rs.close();
-            return itemType;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                pstmt.setInt(2, itemNum);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String itemType = rs.getString("item_type");
+                    return itemType;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -88,22 +87,21 @@ public class InvoiceItem {
      */
     public static Integer getQuantity(Connection conn, Integer invoiceId, Integer itemNum) {
         try {
-            if (!exists(conn, invoiceId, itemNum)) return null;
             String query = """
                 SELECT quantity
                     FROM invoice_items
                     WHERE invoice_id = ?
                         AND item_num = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            pstmt.setInt(2, itemNum);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer quantity = rs.getInt("quantity");
-            pstmt.close();
-            rs.close();
-            return quantity;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                pstmt.setInt(2, itemNum);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer quantity = rs.getInt("quantity");
+                    return quantity;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -119,22 +117,21 @@ public class InvoiceItem {
      */
     public static Float getUnitPrice(Connection conn, Integer invoiceId, Integer itemNum) {
         try {
-            if (!exists(conn, invoiceId, itemNum)) return null;
             String query = """
                 SELECT unit_price
                     FROM invoice_items
                     WHERE invoice_id = ?
                         AND item_num = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            pstmt.setInt(2, itemNum);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Float unitPrice = rs.getFloat("unit_price");
-            pstmt.close();
-            rs.close();
-            return unitPrice;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                pstmt.setInt(2, itemNum);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Float unitPrice = rs.getFloat("unit_price");
+                    return unitPrice;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -150,22 +147,21 @@ public class InvoiceItem {
      */
     public static Float getTotalPrice(Connection conn, Integer invoiceId, Integer itemNum) {
         try {
-            if (!exists(conn, invoiceId, itemNum)) return null;
             String query = """
                 SELECT total_price
                     FROM invoice_items
                     WHERE invoice_id = ?
                         AND item_num = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            pstmt.setInt(2, itemNum);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Float unitPrice = rs.getFloat("total_price");
-            pstmt.close();
-            rs.close();
-            return unitPrice;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                pstmt.setInt(2, itemNum);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Float unitPrice = rs.getFloat("total_price");
+                    return unitPrice;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -174,21 +170,33 @@ public class InvoiceItem {
 
     /**
      * Get the item numbers of an invoice by ID.
+     * Boxes every ID; getItemNumbers returns them as primitive ints.
      * @param conn The connection to the database.
      * @param invoiceId The ID of the invoice.
      * @return The IDs of the invoice items.
      */
     public static LinkedList<Integer> getItems(Connection conn, Integer invoiceId) {
+        IntList ids = getItemNumbers(conn, invoiceId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the item numbers of an invoice by ID.
+     * @param conn The connection to the database.
+     * @param invoiceId The ID of the invoice.
+     * @return The primitive IDs of the invoice items.
+     */
+    public static IntList getItemNumbers(Connection conn, Integer invoiceId) {
         try {
             String query = "SELECT item_num FROM invoice_items WHERE invoice_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("item_num"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("item_num"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -210,14 +218,14 @@ public class InvoiceItem {
                     WHERE invoice_id = ?
                         AND item_num = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            pstmt.setInt(2, itemNum);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                pstmt.setInt(2, itemNum);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
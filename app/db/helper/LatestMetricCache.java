@@ -0,0 +1,95 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded least recently used cache from member ID to the member's latest
+ * health metric record. Members without records are cached too. New records
+ * only ever replace older ones, so a database read racing with an insert
+ * cannot bring back a stale record. Only committed data goes in: HealthMetric
+ * uses the cache on autocommit connections only.
+ *
+ * The cache belongs to one process. Metrics recorded by another process, such
+ * as the terminal interface next to a server, show up once the entry expires,
+ * so db.latestMetricCache.ttlMillis bounds how stale a record can be.
+ */
+public class LatestMetricCache {
+
+    private static final int DEFAULT_CAPACITY = 10000;
+    private static final long DEFAULT_TTL_MS = 30 * 1000;
+
+    private static final int capacity = Integer.getInteger("db.latestMetricCache.size", DEFAULT_CAPACITY);
+    private static final long ttlMillis = Long.getLong("db.latestMetricCache.ttlMillis", DEFAULT_TTL_MS);
+
+    /**
+     * A cached lookup; a null record means the member has no health metrics.
+     */
+    private record Entry(HealthMetricRecord record, long expiresAt) {}
+
+    private static final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Result of a cache lookup.
+     * @param cached True if the member was found in the cache.
+     * @param record The cached record, or null if the member has no health metrics.
+     */
+    record Lookup(boolean cached, HealthMetricRecord record) {}
+
+    // Look up a member in the cache.
+    static Lookup get(int memberId) {
+        synchronized (entries) {
+            Entry entry = entries.get(memberId);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return new Lookup(true, entry.record());
+            }
+            if (entry != null) entries.remove(memberId);
+            misses.incrementAndGet();
+            return new Lookup(false, null);
+        }
+    }
+
+    // Cache a record, read from the database or just inserted, unless a newer one is cached.
+    static void offer(int memberId, HealthMetricRecord record) {
+        if (capacity <= 0) return;
+        synchronized (entries) {
+            Entry entry = entries.get(memberId);
+            if (entry != null && isNewer(entry.record(), record)) return;
+            entries.put(memberId, new Entry(record, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    // Forget a member, e.g. after committing a transaction that recorded metrics for them.
+    public static void invalidate(int memberId) {
+        synchronized (entries) {
+            entries.remove(memberId);
+        }
+    }
+
+    // Forget every cached member.
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public static long getHits() { return hits.get(); }
+
+    public static long getMisses() { return misses.get(); }
+
+    // Check whether a is later than b, breaking timestamp ties by ID; no record is the earliest.
+    private static boolean isNewer(HealthMetricRecord a, HealthMetricRecord b) {
+        if (a == null) return false;
+        if (b == null) return true;
+        int order = a.timestamp().compareTo(b.timestamp());
+        return order > 0 || (order == 0 && a.metricId() > b.metricId());
+    }
+}
@@ -1,5 +1,6 @@
 import java.sql.*;
 import java.util.LinkedList;
+import java.util.function.IntConsumer;
 
 /**
  * Helper class to handle the maintenance tickets table in the database.
@@ -30,15 +31,15 @@ public class MaintenanceTicket {
                     resolved_date
                 ) VALUES (?, ?, ?, ?, ?, ?)
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, equipmentId);
-            pstmt.setDate(2, java.sql.Date.valueOf(java.time.LocalDate.now()));
-            pstmt.setString(3, description);
-            pstmt.setBoolean(4, false);
-            pstmt.setBoolean(5, false);
-            pstmt.setDate(6, null);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, equipmentId);
+                pstmt.setDate(2, java.sql.Date.valueOf(java.time.LocalDate.now()));
+                pstmt.setString(3, description);
+                pstmt.setBoolean(4, false);
+                pstmt.setBoolean(5, false);
+                pstmt.setDate(6, null);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -55,17 +56,16 @@ public class MaintenanceTicket {
      */
     public static boolean updateRepairing(Connection conn, Integer ticketId, boolean beingRepaired) {
         try {
-            if (!exists(conn, ticketId)) return false;
             String query = """
-                UPDATE fitness_goals
+                UPDATE maintenance_tickets
                     SET being_repaired = ?
                     WHERE ticket_id = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setBoolean(1, beingRepaired);
-            pstmt.setInt(2, ticketId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setBoolean(1, beingRepaired);
+                pstmt.setInt(2, ticketId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -83,28 +83,20 @@ public class MaintenanceTicket {
      */
     public static boolean markResolved(Connection conn, Integer ticketId) {
         try {
-            if (!exists(conn, ticketId)) return false;
             String query = """
                 UPDATE maintenance_tickets
-                    SET is_repaired = ?
-                    WHERE ticket_id = ?
-                """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setBoolean(1, true);
-            pstmt.setInt(2, ticketId);
-            pstmt.executeUpdate();
-            pstmt.close();
-            query = """
-                UPDATE maintenance_tickets
-                    SET resolved_date = ?
+                    SET is_repaired = ?,
+                        resolved_date = ?,
+                        being_repaired = ?
                     WHERE ticket_id = ?
                 """;
-            pstmt = conn.prepareStatement(query);
-            pstmt.setDate(1, java.sql.Date.valueOf(java.time.LocalDate.now()));
-            pstmt.setInt(2, ticketId);
-            pstmt.executeUpdate();
-            pstmt.close();
-            updateRepairing(conn, ticketId, false);
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setBoolean(1, true);
+                pstmt.setDate(2, java.sql.Date.valueOf(java.time.LocalDate.now()));
+                pstmt.setBoolean(3, false);
+                pstmt.setInt(4, ticketId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -120,16 +112,15 @@ public class MaintenanceTicket {
      */
     public static Integer getEquipmentId(Connection conn, Integer ticketId) {
         try {
-            if (!exists(conn, ticketId)) return null;
             String query = "SELECT equipment_id FROM maintenance_tickets WHERE ticket_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, ticketId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer id = rs.getInt("equipment_id");
-            pstmt.close();
-            rs.close();
-            return id;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, ticketId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer id = rs.getInt("equipment_id");
+                    return id;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -144,16 +135,15 @@ public class MaintenanceTicket {
      */
     public static Date getReportDate(Connection conn, Integer ticketId) {
         try {
-            if (!exists(conn, ticketId)) return null;
             String query = "SELECT report_date FROM maintenance_tickets WHERE ticket_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, ticketId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date date = rs.getDate("report_date");
-            pstmt.close();
-            rs.close();
-            return date;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, ticketId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Date date = rs.getDate("report_date");
+                    return date;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -168,16 +158,15 @@ public class MaintenanceTicket {
      */
     public static String getDescription(Connection conn, Integer ticketId) {
         try {
-            if (!exists(conn, ticketId)) return null;
             String query = "SELECT description FROM maintenance_tickets WHERE ticket_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, ticketId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String description = rs.getString("description");
-            pstmt.close();
-            rs.close();
-            return description;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, ticketId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String description = rs.getString("description");
+                    return description;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -192,16 +181,15 @@ public class MaintenanceTicket {
      */
     public static boolean isBeingRepaired(Connection conn, Integer ticketId) {
         try {
-            if (!exists(conn, ticketId)) return false;
             String query = "SELECT being_repaired FROM maintenance_tickets WHERE ticket_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, ticketId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            boolean isOperational = rs.getBoolean("being_repaired");
-            pstmt.close();
-            rs.close();
-            return isOperational;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, ticketId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return false;
+                    boolean isOperational = rs.getBoolean("being_repaired");
+                    return isOperational;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -216,16 +204,15 @@ public class MaintenanceTicket {
      */
     public static boolean isRepaired(Connection conn, Integer ticketId) {
         try {
-            if (!exists(conn, ticketId)) return false;
             String query = "SELECT is_repaired FROM maintenance_tickets WHERE ticket_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, ticketId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            boolean isOperational = rs.getBoolean("is_repaired");
-            pstmt.close();
-            rs.close();
-            return isOperational;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, ticketId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return false;
+                    boolean isOperational = rs.getBoolean("is_repaired");
+                    return isOperational;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -240,17 +227,20 @@ public class MaintenanceTicket {
      */
     public static Date getResolutionDate(Connection conn, Integer ticketId) {
         try {
-            if (!exists(conn, ticketId)) return null;
-            if (!isRepaired(conn, ticketId)) return null;
-            String query = "SELECT resolved_date FROM maintenance_tickets WHERE ticket_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, ticketId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date date = rs.getDate("resolved_date");
-            pstmt.close();
-            rs.close();
-            return date;
+            String query = """
+                SELECT resolved_date
+                    FROM maintenance_tickets
+                    WHERE ticket_id = ?
+                        AND is_repaired
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, ticketId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Date date = rs.getDate("resolved_date");
+                    return date;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -259,25 +249,61 @@ public class MaintenanceTicket {
 
     /**
      * Get the IDs of all maintenance tickets.
+     * Boxes every ID; getAllTicketIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @return The IDs of the tickets.
      */
     public static LinkedList<Integer> getAllTickets(Connection conn) {
+        IntList ids = getAllTicketIds(conn);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of all maintenance tickets.
+     * @param conn The connection to the database.
+     * @return The primitive IDs of the tickets.
+     */
+    public static IntList getAllTicketIds(Connection conn) {
         try {
             String query = "SELECT ticket_id FROM maintenance_tickets";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("ticket_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("ticket_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
         return null;
     }
 
+    /**
+     * Pass the IDs of all maintenance tickets to an action.
+     * Unlike getAllTickets, the IDs are never all held in memory at once.
+     * @param conn The connection to the database.
+     * @param fetchSize The number of rows fetched per round trip.
+     * @param action Receives each ID.
+     * @return True if every row was handled, false otherwise.
+     */
+    public static boolean forEachTicket(Connection conn, int fetchSize, IntConsumer action) {
+        try {
+            String query = "SELECT ticket_id FROM maintenance_tickets";
+            Cursor.forEach(
+                conn,
+                query,
+                pstmt -> {},
+                fetchSize,
+                rs -> action.accept(rs.getInt("ticket_id"))
+            );
+        } catch (Exception e) {
+            Terminal.exception(e);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Check if a maintenance ticket exists with the given ID.
      * @param conn The connection to the database.
@@ -287,12 +313,13 @@ public class MaintenanceTicket {
     public static boolean exists(Connection conn, Integer ticketId) {
         try {
             String query = "SELECT ticket_id FROM maintenance_tickets WHERE ticket_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, ticketId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, ticketId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
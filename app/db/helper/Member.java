@@ -1,5 +1,6 @@
 import java.sql.*;
 import java.util.LinkedList;
+import java.util.function.IntConsumer;
 
 /**
  * Helper class to handle the members table in the database.
@@ -35,16 +36,20 @@ public class Member {
                     phone,
                     join_date
                 ) VALUES (?, ?, ?, ?, ?, ?)
+                RETURNING member_id
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, name);
-            pstmt.setDate(2, dob);
-            pstmt.setString(3, gender);
-            pstmt.setString(4, email);
-            pstmt.setString(5, phone);
-            pstmt.setDate(6, java.sql.Date.valueOf(java.time.LocalDate.now()));
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, name);
+                pstmt.setDate(2, dob);
+                pstmt.setString(3, gender);
+                pstmt.setString(4, email);
+                pstmt.setString(5, phone);
+                pstmt.setDate(6, java.sql.Date.valueOf(java.time.LocalDate.now()));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    EmailCache.set(email, rs.getInt("member_id"));
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -59,17 +64,33 @@ public class Member {
      * @return True if the email exists, false otherwise.
      */
     public static boolean emailExists(Connection conn, String email) {
+        return getIdByEmail(conn, email) != null;
+    }
+
+    /**
+     * Get the ID of the member with the given email.
+     * Served from the email cache when possible.
+     * @param conn The connection to the database.
+     * @param email The email to be searched.
+     * @return The ID of the member, or null if no member has the email.
+     */
+    public static Integer getIdByEmail(Connection conn, String email) {
+        EmailCache.Lookup cached = EmailCache.get(email);
+        if (cached.cached()) return cached.memberId();
         try {
-            String query = "SELECT 1 FROM members WHERE email = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, email);
-            boolean exists = pstmt.executeQuery().next();
-            pstmt.close();
-            return exists;
+            String query = "SELECT member_id FROM members WHERE email = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, email);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Integer id = rs.next() ? rs.getInt("member_id") : null;
+                    EmailCache.put(email, id, cached.version());
+                    return id;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
-        return false;
+        return null;
     }
 
     /**
@@ -81,13 +102,12 @@ public class Member {
      */
     public static boolean updateName(Connection conn, Integer memberId, String name) {
         try {
-            if (!(exists(conn, memberId))) return false;
             String query = "UPDATE members SET name = ? WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, name);
-            pstmt.setInt(2, memberId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, name);
+                pstmt.setInt(2, memberId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -104,13 +124,12 @@ public class Member {
      */
     public static boolean updateGender(Connection conn, Integer memberId, String gender) {
         try {
-            if (!(exists(conn, memberId))) return false;
             String query = "UPDATE members SET gender = ? WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, gender);
-            pstmt.setInt(2, memberId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, gender);
+                pstmt.setInt(2, memberId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -127,13 +146,12 @@ public class Member {
      */
     public static boolean updateDOB(Connection conn, Integer memberId, Date date) {
         try {
-            if (!(exists(conn, memberId))) return false;
             String query = "UPDATE members SET date_of_birth = ? WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setDate(1, date);
-            pstmt.setInt(2, memberId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setDate(1, date);
+                pstmt.setInt(2, memberId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -150,13 +168,24 @@ public class Member {
      */
     public static boolean updateEmail(Connection conn, Integer memberId, String email) {
         try {
-            if (!(exists(conn, memberId))) return false;
-            String query = "UPDATE members SET email = ? WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, email);
-            pstmt.setInt(2, memberId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            // Join the row to itself to read back the email it is moving away from.
+            String query = """
+                UPDATE members m
+                    SET email = ?
+                    FROM members old
+                    WHERE m.member_id = ?
+                        AND old.member_id = m.member_id
+                    RETURNING old.email
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, email);
+                pstmt.setInt(2, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return false;
+                    EmailCache.invalidate(rs.getString("email"));
+                    EmailCache.set(email, memberId);
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -173,13 +202,12 @@ public class Member {
      */
     public static boolean updatePhone(Connection conn, Integer memberId, String phone) {
         try {
-            if (!(exists(conn, memberId))) return false;
             String query = "UPDATE members SET phone = ? WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, phone);
-            pstmt.setInt(2, memberId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, phone);
+                pstmt.setInt(2, memberId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -187,6 +215,43 @@ public class Member {
         return true;
     }
 
+    /**
+     * Get the full profile of a member by ID in a single query.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The profile of the member, or null if no member matches the ID.
+     */
+    public static MemberRecord load(Connection conn, Integer memberId) {
+        try {
+            String query = """
+                SELECT member_id, name, date_of_birth, gender, email, phone, join_date
+                    FROM members
+                    WHERE member_id = ?
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    MemberRecord member = null;
+                    if (rs.next()) {
+                        member = new MemberRecord(
+                            rs.getInt("member_id"),
+                            rs.getString("name"),
+                            rs.getDate("date_of_birth"),
+                            rs.getString("gender"),
+                            rs.getString("email"),
+                            rs.getString("phone"),
+                            rs.getDate("join_date")
+                        );
+                    }
+                    return member;
+                }
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
     /**
      * Get the name of a member by ID.
      * @param conn The connection to the database.
@@ -195,16 +260,15 @@ public class Member {
      */
     public static String getName(Connection conn, Integer memberId) {
         try {
-            if (!exists(conn, memberId)) return null;
             String query = "SELECT name FROM members WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String name = rs.getString("name");
-            pstmt.close();
-            rs.close();
-            return name;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String name = rs.getString("name");
+                    return name;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -219,16 +283,15 @@ public class Member {
      */
     public static Date getDOB(Connection conn, Integer memberId) {
         try {
-            if (!exists(conn, memberId)) return null;
             String query = "SELECT date_of_birth FROM members WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date dob = rs.getDate("date_of_birth");
-            pstmt.close();
-            rs.close();
-            return dob;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Date dob = rs.getDate("date_of_birth");
+                    return dob;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -243,16 +306,15 @@ public class Member {
      */
     public static String getGender(Connection conn, Integer memberId) {
         try {
-            if (!exists(conn, memberId)) return null;
             String query = "SELECT gender FROM members WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String gender = rs.getString("gender");
-            pstmt.close();
-            rs.close();
-            return gender;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String gender = rs.getString("gender");
+                    return gender;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -267,16 +329,15 @@ public class Member {
      */
     public static String getEmail(Connection conn, Integer memberId) {
         try {
-            if (!exists(conn, memberId)) return null;
             String query = "SELECT email FROM members WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String email = rs.getString("email");
-            pstmt.close();
-            rs.close();
-            return email;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String email = rs.getString("email");
+                    return email;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -291,16 +352,15 @@ public class Member {
      */
     public static String getPhone(Connection conn, Integer memberId) {
         try {
-            if (!exists(conn, memberId)) return null;
             String query = "SELECT phone FROM members WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String phone = rs.getString("phone");
-            pstmt.close();
-            rs.close();
-            return phone;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String phone = rs.getString("phone");
+                    return phone;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -315,16 +375,15 @@ public class Member {
      */
     public static Date getJoinDate(Connection conn, Integer memberId) {
         try {
-            if (!exists(conn, memberId)) return null;
             String query = "SELECT join_date FROM members WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date date = rs.getDate("join_date");
-            pstmt.close();
-            rs.close();
-            return date;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Date date = rs.getDate("join_date");
+                    return date;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -333,27 +392,64 @@ public class Member {
 
     /**
      * Get the IDs of members with the given name.
+     * Boxes every ID; getMemberIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param name The name to be searched.
      * @return The IDs of the matching members.
      */
     public static LinkedList<Integer> getMembers(Connection conn, String name) {
+        IntList ids = getMemberIds(conn, name);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of members with the given name.
+     * @param conn The connection to the database.
+     * @param name The name to be searched.
+     * @return The primitive IDs of the matching members.
+     */
+    public static IntList getMemberIds(Connection conn, String name) {
         try {
             String query = "SELECT member_id FROM members WHERE name = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setString(1, name);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("member_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, name);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("member_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
         return null;
     }
 
+    /**
+     * Pass the IDs of the members with the given name to an action.
+     * @param conn The connection to the database.
+     * @param name The name to be searched.
+     * @param fetchSize The number of rows fetched per round trip.
+     * @param action Receives each ID.
+     * @return True if every row was handled, false otherwise.
+     */
+    public static boolean forEachMember(Connection conn, String name, int fetchSize, IntConsumer action) {
+        try {
+            String query = "SELECT member_id FROM members WHERE name = ?";
+            Cursor.forEach(
+                conn,
+                query,
+                pstmt -> pstmt.setString(1, name),
+                fetchSize,
+                rs -> action.accept(rs.getInt("member_id"))
+            );
+        } catch (Exception e) {
+            Terminal.exception(e);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Check if a member exists with the given ID.
      * @param conn The connection to the database.
@@ -363,13 +459,13 @@ public class Member {
     public static boolean exists(Connection conn, Integer memberId) {
         try {
             String query = "SELECT member_id FROM members WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
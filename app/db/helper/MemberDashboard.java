@@ -0,0 +1,13 @@
+import java.util.LinkedList;
+
+/**
+ * Record to hold everything shown on a member's dashboard.
+ * @param profile The member's profile.
+ * @param latestMetric The member's most recent health metric, or null if none was recorded.
+ * @param goals The member's fitness goals joined with their goal types.
+ */
+public record MemberDashboard(
+    MemberRecord profile,
+    HealthMetricRecord latestMetric,
+    LinkedList<FitnessGoalView> goals
+) {}
@@ -0,0 +1,360 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Helper class to bulk import members from a CSV file.
+ * The file is split into rows and fields here, then streamed with COPY into a
+ * temporary staging table, checked and deduplicated against the members table
+ * with set-based statements, and the valid rows are inserted in one statement.
+ * Rejected rows, including those that cannot be split into the expected
+ * fields, are written to a CSV file together with the reason they were rejected.
+ */
+public class MemberImport {
+
+    private static final List<String> REQUIRED = List.of("name", "date_of_birth", "gender", "email", "phone");
+    private static final List<String> OPTIONAL = List.of("join_date");
+
+    // Characters of COPY data buffered before they are sent to the server.
+    private static final int COPY_CHUNK = 64 * 1024;
+
+    /**
+     * Import members from a CSV file.
+     * The first line names the columns: name, date_of_birth, gender, email,
+     * phone and optionally join_date, in any order. Dates are yyyy-mm-dd.
+     * Fields follow the CSV rules of COPY, so they may be quoted with double
+     * quotes to hold commas, quotes or line breaks.
+     * When the caller owns the transaction, it clears EmailCache after committing.
+     * @param conn The connection to the database.
+     * @param csv The CSV file to import.
+     * @param rejects The CSV file the rejected rows are written to.
+     * @return The number of imported and rejected rows, or null if failed.
+     */
+    public static ImportResult importCsv(Connection conn, Path csv, Path rejects) {
+        // Undecodable bytes become U+FFFD and reject their row instead of failing the import.
+        try (CsvReader in = new CsvReader(new BufferedReader(
+            new InputStreamReader(Files.newInputStream(csv), StandardCharsets.UTF_8)
+        ))) {
+            List<String> columns = header(in.read());
+            // Run in the caller's transaction if there is one, otherwise in our own.
+            boolean autoCommit = conn.getAutoCommit();
+            if (autoCommit) conn.setAutoCommit(false);
+            try {
+                ImportResult result = load(conn, columns, in, rejects);
+                if (autoCommit) {
+                    conn.commit();
+                    // Emails that were looked up before the import may be cached as unknown.
+                    EmailCache.clear();
+                }
+                return result;
+            } catch (Exception e) {
+                if (autoCommit) conn.rollback();
+                throw e;
+            } finally {
+                if (autoCommit) conn.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
+    // Check the header row and return the staging columns it maps to.
+    private static List<String> header(List<String> names) {
+        if (names == null) throw new IllegalArgumentException("The CSV file is empty.");
+        ArrayList<String> columns = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i) == null ? "" : names.get(i);
+            if (i == 0 && name.startsWith("\uFEFF")) name = name.substring(1);
+            String column = name.strip().toLowerCase(Locale.ROOT);
+            if (!REQUIRED.contains(column) && !OPTIONAL.contains(column))
+                throw new IllegalArgumentException("Unknown column " + column + ".");
+            if (columns.contains(column))
+                throw new IllegalArgumentException("Duplicate column " + column + ".");
+            columns.add(column);
+        }
+        for (String column : REQUIRED) {
+            if (!columns.contains(column)) throw new IllegalArgumentException("Missing column " + column + ".");
+        }
+        return columns;
+    }
+
+    private static ImportResult load(
+        Connection conn,
+        List<String> columns,
+        CsvReader in,
+        Path rejects
+    ) throws Exception {
+        CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+        try (Statement stmt = conn.createStatement()) {
+            // A previous import in the same transaction leaves its staging table behind.
+            stmt.execute("DROP TABLE IF EXISTS pg_temp.member_import");
+            // Every value is staged as text so a bad value is rejected rather than failing the COPY.
+            stmt.execute("""
+                CREATE TEMPORARY TABLE member_import (
+                    row_num         BIGINT,
+                    name            TEXT,
+                    date_of_birth   TEXT,
+                    gender          TEXT,
+                    email           TEXT,
+                    phone           TEXT,
+                    join_date       TEXT,
+                    dob             DATE,
+                    joined          DATE,
+                    reason          TEXT
+                ) ON COMMIT DROP
+                """);
+            stmt.execute("""
+                CREATE OR REPLACE FUNCTION pg_temp.import_date(text) RETURNS DATE AS $$
+                BEGIN
+                    RETURN $1::date;
+                EXCEPTION WHEN others THEN
+                    RETURN NULL;
+                END
+                $$ LANGUAGE plpgsql STABLE
+                """);
+        }
+
+        stage(copy, columns, in);
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE member_import");
+            stmt.executeUpdate("""
+                UPDATE member_import
+                    SET name = trim(name),
+                        gender = trim(gender),
+                        email = trim(email),
+                        phone = trim(phone),
+                        dob = pg_temp.import_date(trim(date_of_birth)),
+                        joined = COALESCE(pg_temp.import_date(trim(join_date)), CURRENT_DATE)
+                """);
+            stmt.executeUpdate("""
+                UPDATE member_import
+                    SET reason = CASE
+                        WHEN COALESCE(name, '') = '' OR COALESCE(gender, '') = ''
+                            OR COALESCE(email, '') = '' OR COALESCE(phone, '') = '' THEN 'missing field'
+                        WHEN dob IS NULL THEN 'invalid date_of_birth'
+                        WHEN COALESCE(trim(join_date), '') <> '' AND pg_temp.import_date(trim(join_date)) IS NULL
+                            THEN 'invalid join_date'
+                        WHEN length(name) > 100 OR length(gender) > 20
+                            OR length(email) > 150 OR length(phone) > 20 THEN 'value too long'
+                        WHEN email NOT LIKE '%_@_%' THEN 'invalid email'
+                    END
+                    WHERE reason IS NULL
+                """);
+            // Within the file the first row of an email wins; emails already registered are rejected.
+            stmt.executeUpdate("""
+                UPDATE member_import s
+                    SET reason = CASE
+                        WHEN d.first_row <> s.row_num THEN 'duplicate email in file'
+                        ELSE 'email already registered'
+                    END
+                    FROM (
+                        SELECT row_num, MIN(row_num) OVER (PARTITION BY email) AS first_row
+                            FROM member_import
+                            WHERE reason IS NULL
+                    ) d
+                    WHERE d.row_num = s.row_num
+                        AND (
+                            d.first_row <> s.row_num
+                            OR EXISTS (SELECT 1 FROM members m WHERE m.email = s.email)
+                        )
+                """);
+            // A member registered concurrently since the check is caught by the conflict clause.
+            stmt.executeUpdate("""
+                WITH inserted AS (
+                    INSERT INTO members (name, date_of_birth, gender, email, phone, join_date)
+                        SELECT name, dob, gender, email, phone, joined
+                            FROM member_import
+                            WHERE reason IS NULL
+                            ORDER BY row_num
+                        ON CONFLICT (email) DO NOTHING
+                        RETURNING email
+                )
+                UPDATE member_import s
+                    SET reason = 'email already registered'
+                    WHERE s.reason IS NULL
+                        AND NOT EXISTS (SELECT 1 FROM inserted i WHERE i.email = s.email)
+                """);
+        }
+
+        int imported;
+        int rejected;
+        String query = "SELECT COUNT(*) FILTER (WHERE reason IS NULL), COUNT(reason) FROM member_import";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                imported = rs.getInt(1);
+                rejected = rs.getInt(2);
+            }
+        }
+
+        try (BufferedWriter out = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8)) {
+            copy.copyOut("""
+                COPY (
+                    SELECT row_num, reason, name, date_of_birth, gender, email, phone, join_date
+                        FROM member_import
+                        WHERE reason IS NOT NULL
+                        ORDER BY row_num
+                ) TO STDOUT WITH (FORMAT csv, HEADER)
+                """, out);
+        }
+        return new ImportResult(imported, rejected);
+    }
+
+    // Copy the rows into the staging table, numbered from 1. Rows that do not split
+    // into one field per column are staged with their reason already set.
+    private static void stage(CopyManager copy, List<String> columns, CsvReader in) throws SQLException, IOException {
+        CopyIn copyIn = copy.copyIn(
+            "COPY member_import (row_num, " + String.join(", ", columns) + ", reason) FROM STDIN WITH (FORMAT csv)"
+        );
+        try {
+            StringBuilder data = new StringBuilder();
+            long rowNum = 0;
+            List<String> fields;
+            while ((fields = in.read()) != null) {
+                // Skip blank lines.
+                if (fields.size() == 1 && fields.get(0) == null) continue;
+                String reason = null;
+                if (in.unterminated()) reason = "unterminated quoted field";
+                else if (fields.size() != columns.size())
+                    reason = "expected " + columns.size() + " fields, found " + fields.size();
+                else if (fields.stream().anyMatch(f -> f != null && (f.indexOf('\0') >= 0 || f.indexOf('\uFFFD') >= 0)))
+                    reason = "invalid character";
+                data.append(++rowNum);
+                for (int i = 0; i < columns.size(); i++) {
+                    data.append(',');
+                    if (i < fields.size()) quote(data, fields.get(i));
+                }
+                data.append(',');
+                quote(data, reason);
+                data.append('\n');
+                if (data.length() >= COPY_CHUNK) {
+                    send(copyIn, data);
+                    data.setLength(0);
+                }
+            }
+            send(copyIn, data);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) copyIn.cancelCopy();
+        }
+    }
+
+    // Append a value quoted for COPY; null is left empty, which COPY reads as NULL.
+    private static void quote(StringBuilder data, String value) {
+        if (value == null) return;
+        data.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // The server cannot store NUL; such rows are rejected anyway.
+            if (c == '\0') continue;
+            if (c == '"') data.append('"');
+            data.append(c);
+        }
+        data.append('"');
+    }
+
+    private static void send(CopyIn copyIn, StringBuilder data) throws SQLException {
+        byte[] bytes = data.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads CSV rows by the rules COPY uses: fields are separated by commas,
+     * a double quote opens or closes a quoted section anywhere in a field, and
+     * inside a quoted section two double quotes stand for one. Rows end at a
+     * line break outside a quoted section.
+     */
+    private static class CsvReader implements AutoCloseable {
+
+        private static final int NONE = -2;
+
+        private final Reader in;
+        private int pushedBack = NONE;
+        private boolean unterminated;
+
+        CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        // Read the next row, or null at the end of the input. Unquoted empty fields are null.
+        List<String> read() throws IOException {
+            int c = next();
+            if (c == -1) return null;
+            ArrayList<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean inQuotes = false;
+            for (;; c = next()) {
+                if (c == -1) {
+                    unterminated = inQuotes;
+                    fields.add(value(field, quoted));
+                    return fields;
+                }
+                if (inQuotes) {
+                    if (c != '"') {
+                        field.append((char) c);
+                        continue;
+                    }
+                    int d = next();
+                    if (d == '"') field.append('"');
+                    else {
+                        inQuotes = false;
+                        pushedBack = d;
+                    }
+                } else if (c == '"') {
+                    inQuotes = true;
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(value(field, quoted));
+                    field.setLength(0);
+                    quoted = false;
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int d = next();
+                        if (d != '\n') pushedBack = d;
+                    }
+                    unterminated = false;
+                    fields.add(value(field, quoted));
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        // Check whether the last row read ran into the end of the input inside a quoted section.
+        boolean unterminated() {
+            return unterminated;
+        }
+
+        private static String value(StringBuilder field, boolean quoted) {
+            return field.isEmpty() && !quoted ? null : field.toString();
+        }
+
+        private int next() throws IOException {
+            if (pushedBack == NONE) return in.read();
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+import java.sql.Date;
+
+/**
+ * Record to hold a full row of the members table.
+ * @param memberId The ID of the member.
+ * @param name The full name of the member.
+ * @param dateOfBirth The date of birth of the member.
+ * @param gender The gender of the member.
+ * @param email The email of the member.
+ * @param phone The phone of the member.
+ * @param joinDate The date the member joined.
+ */
+public record MemberRecord(
+    int memberId,
+    String name,
+    Date dateOfBirth,
+    String gender,
+    String email,
+    String phone,
+    Date joinDate
+) {}
@@ -13,7 +13,7 @@ public class PTSession {
      * @param roomId The ID of the room.
      * @param startTimestamp The starting timestamp of the session.
      * @param endTimestamp The end timestamp of the session.
-     * @return True if successfully added, false otherwise.
+     * @return True if successfully added, false if it overlaps another session or failed.
      */
     public static boolean add(
         Connection conn,
@@ -23,10 +23,8 @@ public class PTSession {
         Timestamp startTimestamp,
         Timestamp endTimestamp
     ) {
-        // Prevent a member from registering for a conflicting PT session.
-        if (isConflicting(conn, memberId, Role.MEMBER, startTimestamp, endTimestamp))
-            return false;
         try {
+            // Overlapping sessions of the trainer, member or room are rejected by the database.
             String query = """
                 INSERT INTO pt_sessions (
                     trainer_id,
@@ -36,16 +34,16 @@ public class PTSession {
                     end_timestamp
                 ) VALUES (?, ?, ?, ?, ?)
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            pstmt.setInt(2, memberId);
-            pstmt.setInt(3, roomId);
-            pstmt.setTimestamp(4, startTimestamp);
-            pstmt.setTimestamp(5, endTimestamp);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, trainerId);
+                pstmt.setInt(2, memberId);
+                pstmt.setInt(3, roomId);
+                pstmt.setTimestamp(4, startTimestamp);
+                pstmt.setTimestamp(5, endTimestamp);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
-            Terminal.exception(e);
+            if (!Utilities.isBookingConflict(e)) Terminal.exception(e);
             return false;
         }
         return true;
@@ -60,10 +58,10 @@ public class PTSession {
     public static boolean delete(Connection conn, Integer sessionId) {
         try {
             String query = "DELETE FROM pt_sessions WHERE session_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, sessionId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, sessionId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -89,37 +87,28 @@ public class PTSession {
         Timestamp endTimestamp
     ) {
         try {
-            // Get all the personal training sessions of the member or trainer.
-            String query;
-            if (role == Role.MEMBER) 
-                query = """
-                    SELECT start_timestamp, end_timestamp
-                        FROM pt_sessions
-                        WHERE member_id = ?
-                    """;
-            else query = """
-                    SELECT start_timestamp, end_timestamp
+            // Check the personal training sessions of the member or trainer.
+            String column = role == Role.MEMBER ? "member_id" : "trainer_id";
+            String query = """
+                SELECT EXISTS (
+                    SELECT 1
                         FROM pt_sessions
-                        WHERE trainer_id = ?
-                    """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-
-            // Check each personal training session for scheduling conflicts.
-            while(rs.next()) {
-                Timestamp st = rs.getTimestamp("start_timestamp");
-                Timestamp et = rs.getTimestamp("end_timestamp");
-                if (Utilities.overlaps(startTimestamp, endTimestamp, st, et))
-                    return true;
+                        WHERE %s = ?
+                            AND slot && tsrange(?, ?)
+                ) AS conflicting
+                """.formatted(column);
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, id);
+                pstmt.setTimestamp(2, startTimestamp);
+                pstmt.setTimestamp(3, endTimestamp);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return rs.getBoolean("conflicting");
+                }
             }
-
-            rs.close();
-
         } catch (Exception e) {
             Terminal.exception(e);
-            return true;
         }
-        return false;
+        return true;
     }
 }
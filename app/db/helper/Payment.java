@@ -1,5 +1,6 @@
 import java.sql.*;
 import java.util.LinkedList;
+import java.util.function.IntConsumer;
 
 /**
  * Helper class to handle the payments table in the database.
@@ -30,13 +31,13 @@ public class Payment {
                     payment_date
                 ) VALUES (?, ?, ?, ?)
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, invoiceId);
-            pstmt.setFloat(2, amountPaid);
-            pstmt.setString(3, method);
-            pstmt.setDate(4, java.sql.Date.valueOf(java.time.LocalDate.now()));
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, invoiceId);
+                pstmt.setFloat(2, amountPaid);
+                pstmt.setString(3, method);
+                pstmt.setDate(4, java.sql.Date.valueOf(java.time.LocalDate.now()));
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -52,16 +53,15 @@ public class Payment {
      */
     public static Integer getInvoiceId(Connection conn, Integer paymentId) {
         try {
-            if (!exists(conn, paymentId)) return null;
             String query = "SELECT invoice_id FROM payments WHERE payment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, paymentId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Integer id = rs.getInt("invoice_id");
-            pstmt.close();
-            rs.close();
-            return id;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, paymentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Integer id = rs.getInt("invoice_id");
+                    return id;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -76,16 +76,15 @@ public class Payment {
      */
     public static Float getAmountPaid(Connection conn, Integer paymentId) {
         try {
-            if (!exists(conn, paymentId)) return null;
             String query = "SELECT amount_paid FROM payments WHERE payment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, paymentId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Float amount = rs.getFloat("amount_paid");
-            pstmt.close();
-            rs.close();
-            return amount;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, paymentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Float amount = rs.getFloat("amount_paid");
+                    return amount;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -100,16 +99,15 @@ public class Payment {
      */
     public static String getMethod(Connection conn, Integer paymentId) {
         try {
-            if (!exists(conn, paymentId)) return null;
             String query = "SELECT method FROM payments WHERE payment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, paymentId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String method = rs.getString("method");
-            pstmt.close();
-            rs.close();
-            return method;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, paymentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    String method = rs.getString("method");
+                    return method;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -124,16 +122,15 @@ public class Payment {
      */
     public static Date getPaymentDate(Connection conn, Integer paymentId) {
         try {
-            if (!exists(conn, paymentId)) return null;
             String query = "SELECT payment_date FROM payments WHERE payment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, paymentId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date date = rs.getDate("payment_date");
-            pstmt.close();
-            rs.close();
-            return date;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, paymentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    Date date = rs.getDate("payment_date");
+                    return date;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -142,27 +139,74 @@ public class Payment {
 
     /**
      * Get the IDs of payment records of a member by ID.
+     * Boxes every ID; getRecordIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param memberId The ID of the member.
      * @return The IDs of the payment records.
      */
     public static LinkedList<Integer> getRecords(Connection conn, Integer memberId) {
+        IntList ids = getRecordIds(conn, memberId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of payment records of a member by ID.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @return The primitive IDs of the payment records.
+     */
+    public static IntList getRecordIds(Connection conn, Integer memberId) {
         try {
-            String query = "SELECT payment_id FROM payments WHERE member_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, memberId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("payment_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            String query = """
+                SELECT p.payment_id
+                    FROM payments p
+                    JOIN invoices i ON i.invoice_id = p.invoice_id
+                    WHERE i.member_id = ?
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, memberId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("payment_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
         return null;
     }
 
+    /**
+     * Pass the IDs of the payment records of a member to an action.
+     * @param conn The connection to the database.
+     * @param memberId The ID of the member.
+     * @param fetchSize The number of rows fetched per round trip.
+     * @param action Receives each ID.
+     * @return True if every row was handled, false otherwise.
+     */
+    public static boolean forEachRecord(Connection conn, Integer memberId, int fetchSize, IntConsumer action) {
+        try {
+            String query = """
+                SELECT p.payment_id
+                    FROM payments p
+                    JOIN invoices i ON i.invoice_id = p.invoice_id
+                    WHERE i.member_id = ?
+                """;
+            Cursor.forEach(
+                conn,
+                query,
+                pstmt -> pstmt.setInt(1, memberId),
+                fetchSize,
+                rs -> action.accept(rs.getInt("payment_id"))
+            );
+        } catch (Exception e) {
+            Terminal.exception(e);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Check if a payment record exists with the given ID.
      * @param conn The connection to the database.
@@ -172,13 +216,13 @@ public class Payment {
     public static boolean exists(Connection conn, Integer paymentId) {
         try {
             String query = "SELECT payment_id FROM payments WHERE payment_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, paymentId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, paymentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean exists = rs.next();
+                    return exists;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
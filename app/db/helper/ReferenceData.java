@@ -0,0 +1,226 @@
+import java.sql.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of the goal types, rooms and trainers tables.
+ * The tables are small and almost never change, so they are loaded whole into
+ * arrays indexed by ID and served from memory. The snapshot is reloaded once
+ * it is older than the TTL, after an explicit invalidation, or when an unknown
+ * ID is looked up and the snapshot is old enough to be worth refreshing.
+ */
+public class ReferenceData {
+
+    private static final long DEFAULT_TTL_MS = 10 * 60 * 1000;
+    // An unknown ID only triggers a reload if the snapshot is at least this old.
+    private static final long MISSING_RELOAD_MS = 1000;
+
+    private static final long ttlMillis = Long.getLong("db.reference.ttlMillis", DEFAULT_TTL_MS);
+
+    private static volatile Snapshot snapshot;
+    private static final Object loadLock = new Object();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Copy of the reference tables indexed by ID, never modified once published.
+     */
+    private static class Snapshot {
+        final long loadedAt = System.currentTimeMillis();
+
+        boolean[] goalTypes = new boolean[0];
+        String[] goalTypeNames = new String[0];
+        String[] goalTypeUnits = new String[0];
+
+        boolean[] rooms = new boolean[0];
+        String[] roomLocations = new String[0];
+
+        boolean[] trainers = new boolean[0];
+        String[] trainerNames = new String[0];
+        String[] trainerEmails = new String[0];
+        String[] trainerPhones = new String[0];
+        String[] trainerSpecializations = new String[0];
+        Date[] trainerHireDates = new Date[0];
+
+        boolean stale() {
+            return System.currentTimeMillis() - loadedAt >= ttlMillis;
+        }
+    }
+
+    /**
+     * Load the reference tables into memory.
+     * @param conn The connection to the database.
+     * @throws SQLException If the tables could not be read.
+     */
+    public static void preload(Connection conn) throws SQLException {
+        snapshot = load(conn);
+    }
+
+    // Drop the current snapshot so the next lookup reloads it.
+    public static void invalidate() {
+        snapshot = null;
+    }
+
+    public static long getHits() { return hits.get(); }
+
+    public static long getMisses() { return misses.get(); }
+
+    // The share of lookups served without a reload, between 0 and 1.
+    public static double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    static boolean goalTypeExists(Connection conn, int typeId) throws SQLException {
+        return lookup(conn, typeId, s -> s.goalTypes) != null;
+    }
+
+    static String goalTypeName(Connection conn, int typeId) throws SQLException {
+        Snapshot s = lookup(conn, typeId, x -> x.goalTypes);
+        return s == null ? null : s.goalTypeNames[typeId];
+    }
+
+    static String goalTypeUnit(Connection conn, int typeId) throws SQLException {
+        Snapshot s = lookup(conn, typeId, x -> x.goalTypes);
+        return s == null ? null : s.goalTypeUnits[typeId];
+    }
+
+    static boolean roomExists(Connection conn, int roomId) throws SQLException {
+        return lookup(conn, roomId, s -> s.rooms) != null;
+    }
+
+    static String roomLocation(Connection conn, int roomId) throws SQLException {
+        Snapshot s = lookup(conn, roomId, x -> x.rooms);
+        return s == null ? null : s.roomLocations[roomId];
+    }
+
+    static boolean trainerExists(Connection conn, int trainerId) throws SQLException {
+        return lookup(conn, trainerId, s -> s.trainers) != null;
+    }
+
+    static String trainerName(Connection conn, int trainerId) throws SQLException {
+        Snapshot s = lookup(conn, trainerId, x -> x.trainers);
+        return s == null ? null : s.trainerNames[trainerId];
+    }
+
+    static String trainerEmail(Connection conn, int trainerId) throws SQLException {
+        Snapshot s = lookup(conn, trainerId, x -> x.trainers);
+        return s == null ? null : s.trainerEmails[trainerId];
+    }
+
+    static String trainerPhone(Connection conn, int trainerId) throws SQLException {
+        Snapshot s = lookup(conn, trainerId, x -> x.trainers);
+        return s == null ? null : s.trainerPhones[trainerId];
+    }
+
+    static String trainerSpecialization(Connection conn, int trainerId) throws SQLException {
+        Snapshot s = lookup(conn, trainerId, x -> x.trainers);
+        return s == null ? null : s.trainerSpecializations[trainerId];
+    }
+
+    static Date trainerHireDate(Connection conn, int trainerId) throws SQLException {
+        Snapshot s = lookup(conn, trainerId, x -> x.trainers);
+        return s == null ? null : s.trainerHireDates[trainerId];
+    }
+
+    /**
+     * Selects which table of a snapshot an ID belongs to.
+     */
+    private interface Table {
+        boolean[] of(Snapshot s);
+    }
+
+    // Find the snapshot holding an ID, reloading if needed, or null if there is no such row.
+    private static Snapshot lookup(Connection conn, int id, Table table) throws SQLException {
+        Snapshot s = snapshot;
+        if (s == null || s.stale()) {
+            misses.incrementAndGet();
+            s = reload(conn, s);
+        } else if (!contains(table.of(s), id) && System.currentTimeMillis() - s.loadedAt >= MISSING_RELOAD_MS) {
+            // The row may have been added since the snapshot was taken.
+            misses.incrementAndGet();
+            s = reload(conn, s);
+        } else {
+            hits.incrementAndGet();
+        }
+        return contains(table.of(s), id) ? s : null;
+    }
+
+    private static boolean contains(boolean[] present, int id) {
+        return id >= 0 && id < present.length && present[id];
+    }
+
+    // Reload the snapshot unless another thread already replaced the one seen by the caller.
+    private static Snapshot reload(Connection conn, Snapshot seen) throws SQLException {
+        synchronized (loadLock) {
+            Snapshot current = snapshot;
+            if (current != null && current != seen && !current.stale()) return current;
+            current = load(conn);
+            snapshot = current;
+            return current;
+        }
+    }
+
+    // Rows are read highest ID first so the arrays can be sized by the first row.
+    private static Snapshot load(Connection conn) throws SQLException {
+        Snapshot s = new Snapshot();
+        String query = "SELECT type_id, name, unit FROM goal_types ORDER BY type_id DESC";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("type_id");
+                    if (s.goalTypes.length == 0) {
+                        s.goalTypes = new boolean[id + 1];
+                        s.goalTypeNames = new String[id + 1];
+                        s.goalTypeUnits = new String[id + 1];
+                    }
+                    s.goalTypes[id] = true;
+                    s.goalTypeNames[id] = rs.getString("name");
+                    s.goalTypeUnits[id] = rs.getString("unit");
+                }
+            }
+        }
+        query = "SELECT room_id, location FROM rooms ORDER BY room_id DESC";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("room_id");
+                    if (s.rooms.length == 0) {
+                        s.rooms = new boolean[id + 1];
+                        s.roomLocations = new String[id + 1];
+                    }
+                    s.rooms[id] = true;
+                    s.roomLocations[id] = rs.getString("location");
+                }
+            }
+        }
+        query = """
+            SELECT trainer_id, name, email, phone, specialization, hire_date
+                FROM trainers
+                ORDER BY trainer_id DESC
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("trainer_id");
+                    if (s.trainers.length == 0) {
+                        s.trainers = new boolean[id + 1];
+                        s.trainerNames = new String[id + 1];
+                        s.trainerEmails = new String[id + 1];
+                        s.trainerPhones = new String[id + 1];
+                        s.trainerSpecializations = new String[id + 1];
+                        s.trainerHireDates = new Date[id + 1];
+                    }
+                    s.trainers[id] = true;
+                    s.trainerNames[id] = rs.getString("name");
+                    s.trainerEmails[id] = rs.getString("email");
+                    s.trainerPhones[id] = rs.getString("phone");
+                    s.trainerSpecializations[id] = rs.getString("specialization");
+                    s.trainerHireDates[id] = rs.getDate("hire_date");
+                }
+            }
+        }
+        return s;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Outcome of reserving a seat in a class.
+ */
+public enum Reservation {
+    // The member now has a seat in the class.
+    RESERVED,
+    // Every seat in the class is taken.
+    FULL,
+    // The member already has a seat in the class.
+    ALREADY_REGISTERED,
+    // The class overlaps another class the member is registered in.
+    CONFLICT,
+    // No class exists with the given ID.
+    NOT_FOUND,
+    // The reservation could not be made because of an error.
+    FAILED,
+    // No database connection could be borrowed to make the reservation.
+    UNAVAILABLE
+}
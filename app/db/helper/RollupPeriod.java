@@ -0,0 +1,33 @@
+import java.util.Locale;
+
+/**
+ * Bucket size of the health metric rollups.
+ */
+public enum RollupPeriod {
+    // One bucket per calendar day.
+    DAY,
+    // One bucket per week, starting on Monday.
+    WEEK,
+    // One bucket per calendar month.
+    MONTH;
+
+    /**
+     * Get the name of the period as stored in the rollups table and understood by date_trunc.
+     * @return The name of the period.
+     */
+    public String sqlName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the period with the given name, ignoring case.
+     * @param name The name of the period, e.g. week.
+     * @return The period, or null if no period has the name.
+     */
+    public static RollupPeriod parse(String name) {
+        for (RollupPeriod period : values()) {
+            if (period.name().equalsIgnoreCase(name)) return period;
+        }
+        return null;
+    }
+}
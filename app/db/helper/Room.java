@@ -2,6 +2,7 @@ import java.sql.*;
 
 /**
  * Helper class to handle the rooms table in the database.
+ * Lookups are served from the reference data cache.
  */
 public class Room {
 
@@ -13,16 +14,7 @@ public class Room {
      */
     public static String getLocation(Connection conn, Integer roomId) {
         try {
-            if (!exists(conn, roomId)) return null;
-            String query = "SELECT location FROM rooms WHERE room_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, roomId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String location = rs.getString("location");
-            pstmt.close();
-            rs.close();
-            return location;
+            return ReferenceData.roomLocation(conn, roomId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -37,14 +29,7 @@ public class Room {
      */
     public static boolean exists(Connection conn, Integer roomId) {
         try {
-            String query = "SELECT room_id FROM rooms WHERE room_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, roomId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            rs.close();
-            return exists;
+            return ReferenceData.roomExists(conn, roomId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -0,0 +1,11 @@
+import java.sql.Timestamp;
+
+/**
+ * Record to hold a single time slot of a schedule.
+ * @param start The starting timestamp of the slot.
+ * @param end The end timestamp of the slot.
+ */
+public record TimeSlot(
+    Timestamp start,
+    Timestamp end
+) {}
@@ -2,6 +2,7 @@ import java.sql.*;
 
 /**
  * Helper class to handle the trainers table in the database.
+ * Lookups are served from the reference data cache.
  */
 public class Trainer {
 
@@ -13,16 +14,7 @@ public class Trainer {
      */
     public static String getName(Connection conn, Integer trainerId) {
         try {
-            if (!exists(conn, trainerId)) return null;
-            String query = "SELECT name FROM trainers WHERE trainer_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String name = rs.getString("name");
-            rs.close();
-            pstmt.close();
-            return name;
+            return ReferenceData.trainerName(conn, trainerId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -37,16 +29,7 @@ public class Trainer {
      */
     public static String getEmail(Connection conn, Integer trainerId) {
         try {
-            if (!exists(conn, trainerId)) return null;
-            String query = "SELECT email FROM trainers WHERE trainer_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String email = rs.getString("email");
-            pstmt.close();
-            rs.close();
-            return email;
+            return ReferenceData.trainerEmail(conn, trainerId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -61,16 +44,7 @@ public class Trainer {
      */
     public static String getPhone(Connection conn, Integer trainerId) {
         try {
-            if (!exists(conn, trainerId)) return null;
-            String query = "SELECT phone FROM trainers WHERE trainer_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String phone = rs.getString("phone");
-            pstmt.close();
-            rs.close();
-            return phone;
+            return ReferenceData.trainerPhone(conn, trainerId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -85,16 +59,7 @@ public class Trainer {
      */
     public static String getSpecialization(Connection conn, Integer trainerId) {
         try {
-            if (!exists(conn, trainerId)) return null;
-            String query = "SELECT specialization FROM trainers WHERE trainer_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            String specialization = rs.getString("specialization");
-            pstmt.close();
-            rs.close();
-            return specialization;
+            return ReferenceData.trainerSpecialization(conn, trainerId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -109,16 +74,7 @@ public class Trainer {
      */
     public static Date getHireDate(Connection conn, Integer trainerId) {
         try {
-            if (!exists(conn, trainerId)) return null;
-            String query = "SELECT hire_date FROM trainers WHERE trainer_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            ResultSet rs = pstmt.executeQuery();
-            rs.next();
-            Date hireDate = rs.getDate("hire_date");
-            pstmt.close();
-            rs.close();
-            return hireDate;
+            return ReferenceData.trainerHireDate(conn, trainerId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -133,13 +89,7 @@ public class Trainer {
      */
     public static boolean exists(Connection conn, Integer trainerId) {
         try {
-            String query = "SELECT trainer_id FROM trainers WHERE trainer_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            ResultSet rs = pstmt.executeQuery();
-            boolean exists = rs.next();
-            pstmt.close();
-            return exists;
+            return ReferenceData.trainerExists(conn, trainerId);
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -1,5 +1,8 @@
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
-import java.util.Calendar;
+import java.time.LocalDateTime;
 import java.util.LinkedList;
 
 /**
@@ -7,6 +10,9 @@ import java.util.LinkedList;
  */
 public class TrainerAvailibility {
     
+    // Number of rows sent to the server per JDBC batch.
+    private static final int BATCH_SIZE = 500;
+
     /**
      * Insert a trainer availibility block into the trainer availibility table.
      * @param conn The connection to the database.
@@ -22,60 +28,294 @@ public class TrainerAvailibility {
         Timestamp startTimestamp,
         Timestamp endTimestamp,
         Integer reccurences
+    ) {
+        return addRecurring(conn, trainerId, startTimestamp, endTimestamp, reccurences) != null;
+    }
+
+    /**
+     * Insert a trainer availibility block and its weekly recurrences in a single transaction.
+     * Each weekly instance is stored as its own row and sent to the server in JDBC batches.
+     * Nothing is inserted if any instance conflicts with a class or personal
+     * training session of the trainer. The check runs in the same transaction,
+     * with the trainer locked against concurrent bookings.
+     * @param conn The connection to the database.
+     * @param trainerId The ID of the trainer.
+     * @param startTimestamp The starting timestamp of the first block.
+     * @param endTimestamp The end timestamp of the first block.
+     * @param reccurences The number of weekly recurrences after the first block.
+     * @return The number of blocks inserted, or null if failed.
+     */
+    public static Integer addRecurring(
+        Connection conn,
+        Integer trainerId,
+        Timestamp startTimestamp,
+        Timestamp endTimestamp,
+        Integer reccurences
     ) {
         try {
-            // Prevent a trainer from creating a conflicting availibility block.
-            if (isConflicting(conn, trainerId, startTimestamp, endTimestamp))
-                return false;
-            Calendar calendar = Calendar.getInstance();
-            Timestamp st = new Timestamp(startTimestamp.getTime());
-            Timestamp et = new Timestamp(endTimestamp.getTime());
-            for (int i = 0; i < reccurences; i++) {
-                // Add a week to the starting timestamp.
-                calendar.setTime(st);
-                calendar.add(Calendar.WEEK_OF_YEAR, 1);
-                st = new Timestamp(calendar.getTimeInMillis());
-                // Add a week to the ending timestamp.
-                calendar.setTime(et);
-                calendar.add(Calendar.WEEK_OF_YEAR, 1);
-                et = new Timestamp(calendar.getTimeInMillis());
-                if (isConflicting(conn, trainerId, st, et))
-                    return false;
-            }
+            LinkedList<Block> blocks = new LinkedList<>();
+            expand(blocks, trainerId, startTimestamp, endTimestamp, reccurences);
+            LinkedList<Series> series = new LinkedList<>();
+            series.add(new Series(trainerId, startTimestamp, endTimestamp, reccurences));
+            return insert(conn, series, blocks);
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
 
-            String query = """
-                INSERT INTO trainer_availibility (
-                    trainer_id,
-                    start_timestamp,
-                    end_timestamp,
-                    recurrences
-                ) VALUES (?, ?, ?, ?)
-                """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            pstmt.setTimestamp(2, startTimestamp);
-            pstmt.setTimestamp(3, endTimestamp);
-            pstmt.executeUpdate();
-            // Insert additional reccuring instances of the block to the table.
-            for (int i = 0; i < reccurences; i++) {
-                // Add a week to the starting timestamp.
-                calendar.setTime(startTimestamp);
-                calendar.add(Calendar.WEEK_OF_YEAR, 1);
-                startTimestamp = new Timestamp(calendar.getTimeInMillis());
-                // Add a week to the ending timestamp.
-                calendar.setTime(endTimestamp);
-                calendar.add(Calendar.WEEK_OF_YEAR, 1);
-                endTimestamp = new Timestamp(calendar.getTimeInMillis());
-                pstmt.setTimestamp(2, startTimestamp);
-                pstmt.setTimestamp(3, endTimestamp);
-                pstmt.executeUpdate();
+    /**
+     * Bulk load availibility blocks for any number of trainers from a schedule file.
+     * Each line of the file holds trainer_id,start,end,recurrences with timestamps
+     * written as yyyy-mm-dd hh:mm[:ss]. Blank lines, lines starting with # and a
+     * leading header line are skipped. The whole file is loaded in a single
+     * transaction, so nothing is inserted if any line is invalid or conflicts
+     * with a class or personal training session of its trainer.
+     * @param conn The connection to the database.
+     * @param file The path of the schedule file.
+     * @return The number of blocks inserted, or null if failed.
+     */
+    public static Integer loadSchedule(Connection conn, Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            LinkedList<Block> blocks = new LinkedList<>();
+            LinkedList<Series> series = new LinkedList<>();
+            String line;
+            int lineNum = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNum++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (lineNum == 1 && line.startsWith("trainer_id")) continue;
+                String[] fields = line.split(",");
+                if (fields.length != 4) {
+                    Terminal.error("Line " + lineNum + " of " + file + " does not have 4 fields.");
+                    return null;
+                }
+                try {
+                    Series entry = new Series(
+                        Integer.parseInt(fields[0].strip()),
+                        Utilities.parseTimestamp(fields[1]),
+                        Utilities.parseTimestamp(fields[2]),
+                        Integer.parseInt(fields[3].strip())
+                    );
+                    expand(blocks, entry.trainerId(), entry.start(), entry.end(), entry.reccurences());
+                    series.add(entry);
+                } catch (IllegalArgumentException e) {
+                    Terminal.error("Line " + lineNum + " of " + file + " is invalid: " + e.getMessage());
+                    return null;
+                }
             }
-            pstmt.close();
+            return insert(conn, series, blocks);
         } catch (Exception e) {
             Terminal.exception(e);
-            return false;
         }
-        return true;
+        return null;
+    }
+
+    /**
+     * Find the instances of a weekly recurring block that clash with a class or
+     * personal training session of the trainer.
+     * The series is expanded on the server, so all instances are checked in a
+     * single query and only the clashing ones are sent back.
+     * @param conn The connection to the database.
+     * @param trainerId The ID of the trainer.
+     * @param startTimestamp The starting timestamp of the first block.
+     * @param endTimestamp The end timestamp of the first block.
+     * @param reccurences The number of weekly recurrences after the first block.
+     * @return The clashing instances in chronological order, or null if failed.
+     */
+    public static LinkedList<TimeSlot> findConflicts(
+        Connection conn,
+        Integer trainerId,
+        Timestamp startTimestamp,
+        Timestamp endTimestamp,
+        Integer reccurences
+    ) {
+        try {
+            return conflicts(conn, trainerId, startTimestamp, endTimestamp, reccurences);
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
+    // Find the clashing instances of a weekly recurring block, see findConflicts.
+    private static LinkedList<TimeSlot> conflicts(
+        Connection conn,
+        int trainerId,
+        Timestamp startTimestamp,
+        Timestamp endTimestamp,
+        int reccurences
+    ) throws SQLException {
+        String query = """
+            WITH series AS (
+                SELECT ?::timestamp + n * INTERVAL '1 week' AS start_timestamp,
+                       ?::timestamp + n * INTERVAL '1 week' AS end_timestamp
+                    FROM generate_series(0, ?) AS n
+            )
+            SELECT s.start_timestamp, s.end_timestamp
+                FROM series s
+                WHERE EXISTS (
+                    SELECT 1
+                        FROM classes c
+                        WHERE c.trainer_id = ?
+                            AND c.start_timestamp < s.end_timestamp
+                            AND c.end_timestamp > s.start_timestamp
+                ) OR EXISTS (
+                    SELECT 1
+                        FROM pt_sessions p
+                        WHERE p.trainer_id = ?
+                            AND p.start_timestamp < s.end_timestamp
+                            AND p.end_timestamp > s.start_timestamp
+                )
+                ORDER BY s.start_timestamp
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setTimestamp(1, startTimestamp);
+            pstmt.setTimestamp(2, endTimestamp);
+            pstmt.setInt(3, reccurences);
+            pstmt.setInt(4, trainerId);
+            pstmt.setInt(5, trainerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                LinkedList<TimeSlot> conflicts = new LinkedList<>();
+                while (rs.next()) {
+                    conflicts.add(new TimeSlot(
+                        rs.getTimestamp("start_timestamp"),
+                        rs.getTimestamp("end_timestamp")
+                    ));
+                }
+                return conflicts;
+            }
+        }
+    }
+
+    /**
+     * A single availibility block waiting to be inserted.
+     */
+    private record Block(int trainerId, Timestamp start, Timestamp end) {}
+
+    /**
+     * A line of a schedule file: a block and its number of weekly recurrences.
+     */
+    private record Series(int trainerId, Timestamp start, Timestamp end, int reccurences) {}
+
+    // Append a block and its weekly recurrences to the list.
+    private static void expand(
+        LinkedList<Block> blocks,
+        int trainerId,
+        Timestamp startTimestamp,
+        Timestamp endTimestamp,
+        int reccurences
+    ) {
+        if (!startTimestamp.before(endTimestamp))
+            throw new IllegalArgumentException("Block ends before it starts.");
+        if (reccurences < 0)
+            throw new IllegalArgumentException("Negative number of recurrences.");
+        LocalDateTime st = startTimestamp.toLocalDateTime();
+        LocalDateTime et = endTimestamp.toLocalDateTime();
+        for (int i = 0; i <= reccurences; i++) {
+            blocks.add(new Block(
+                trainerId,
+                Timestamp.valueOf(st.plusWeeks(i)),
+                Timestamp.valueOf(et.plusWeeks(i))
+            ));
+        }
+    }
+
+    // Check the series for conflicts and insert their blocks within a single transaction,
+    // the caller's if one is open. Returns null, inserting nothing, if any series conflicts.
+    private static Integer insert(
+        Connection conn,
+        LinkedList<Series> series,
+        LinkedList<Block> blocks
+    ) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        if (autoCommit) conn.setAutoCommit(false);
+        try {
+            Integer inserted = null;
+            lock(conn, series);
+            if (!hasConflict(conn, series)) {
+                insert(conn, blocks);
+                inserted = blocks.size();
+            }
+            if (autoCommit) {
+                if (inserted == null) conn.rollback();
+                else conn.commit();
+            }
+            return inserted;
+        } catch (SQLException e) {
+            if (autoCommit) conn.rollback();
+            throw e;
+        } finally {
+            if (autoCommit) conn.setAutoCommit(true);
+        }
+    }
+
+    // Lock the trainers of the series in ID order, the lock class and session inserts take,
+    // so no booking can slip in between the conflict check and the insert.
+    private static void lock(Connection conn, LinkedList<Series> series) throws SQLException {
+        Integer[] trainerIds = series.stream().map(Series::trainerId).distinct().toArray(Integer[]::new);
+        String query = """
+            SELECT trainer_id
+                FROM trainers
+                WHERE trainer_id = ANY (?)
+                ORDER BY trainer_id
+                FOR NO KEY UPDATE
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setArray(1, conn.createArrayOf("int4", trainerIds));
+            pstmt.executeQuery().close();
+        }
+    }
+
+    // Check each series with the same query findConflicts uses, reporting the first clash.
+    private static boolean hasConflict(Connection conn, LinkedList<Series> series) throws SQLException {
+        for (Series entry : series) {
+            LinkedList<TimeSlot> conflicts = conflicts(
+                conn,
+                entry.trainerId(),
+                entry.start(),
+                entry.end(),
+                entry.reccurences()
+            );
+            if (!conflicts.isEmpty()) {
+                TimeSlot conflict = conflicts.getFirst();
+                Terminal.error(
+                    "Trainer " + entry.trainerId() + " is already booked during "
+                        + conflict.start() + " to " + conflict.end() + "."
+                );
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Insert the blocks in JDBC batches.
+    private static void insert(Connection conn, LinkedList<Block> blocks) throws SQLException {
+        String query = """
+            INSERT INTO trainer_availability (
+                trainer_id,
+                start_timestamp,
+                end_timestamp,
+                recurrences
+            ) VALUES (?, ?, ?, ?)
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            int pending = 0;
+            for (Block block : blocks) {
+                pstmt.setInt(1, block.trainerId());
+                pstmt.setTimestamp(2, block.start());
+                pstmt.setTimestamp(3, block.end());
+                // Every weekly instance is stored as a row of its own.
+                pstmt.setInt(4, 0);
+                pstmt.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    pstmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) pstmt.executeBatch();
+        }
     }
 
     /**
@@ -86,11 +326,11 @@ public class TrainerAvailibility {
      */
     public static boolean delete(Connection conn, Integer availibilityId) {
         try {
-            String query = "DELETE FROM trainer_availibility WHERE availibility_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, availibilityId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            String query = "DELETE FROM trainer_availability WHERE availability_id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, availibilityId);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -108,15 +348,15 @@ public class TrainerAvailibility {
     public static boolean updateStart(Connection conn, Integer availibilityId, Timestamp st) {
         try {
             String query = """
-                UPDATE trainer_availibility
+                UPDATE trainer_availability
                     SET start_timestamp = ?
-                    WHERE availibility_id = ?
+                    WHERE availability_id = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setTimestamp(1, st);
-            pstmt.setInt(2, availibilityId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setTimestamp(1, st);
+                pstmt.setInt(2, availibilityId);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -134,15 +374,15 @@ public class TrainerAvailibility {
     public static boolean updateEnd(Connection conn, Integer availibilityId, Timestamp st) {
         try {
             String query = """
-                UPDATE trainer_availibility
+                UPDATE trainer_availability
                     SET end_timestamp = ?
-                    WHERE availibility_id = ?
+                    WHERE availability_id = ?
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setTimestamp(1, st);
-            pstmt.setInt(2, availibilityId);
-            pstmt.executeUpdate();
-            pstmt.close();
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setTimestamp(1, st);
+                pstmt.setInt(2, availibilityId);
+                pstmt.executeUpdate();
+            }
         } catch (Exception e) {
             Terminal.exception(e);
             return false;
@@ -152,21 +392,33 @@ public class TrainerAvailibility {
 
     /**
      * Get the IDs of available personal training sessions of a trainer by ID.
+     * Boxes every ID; getAvailibilityIds returns them as primitive ints.
      * @param conn The connection to the database.
      * @param trainerId The ID of the trainer.
      * @return The IDs of the available personal training sessions.
      */
     public static LinkedList<Integer> getAvailibilities(Connection conn, Integer trainerId) {
+        IntList ids = getAvailibilityIds(conn, trainerId);
+        return ids == null ? null : ids.toLinkedList();
+    }
+
+    /**
+     * Get the IDs of available personal training sessions of a trainer by ID.
+     * @param conn The connection to the database.
+     * @param trainerId The ID of the trainer.
+     * @return The primitive IDs of the available personal training sessions.
+     */
+    public static IntList getAvailibilityIds(Connection conn, Integer trainerId) {
         try {
-            String query = "SELECT availibility_id FROM trainer_availibility WHERE trainer_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            ResultSet rs = pstmt.executeQuery();
-            LinkedList<Integer> ids = new LinkedList<>();
-            while (rs.next()) ids.add(rs.getInt("availibility_id"));
-            pstmt.close();
-            rs.close();
-            return ids;
+            String query = "SELECT availability_id FROM trainer_availability WHERE trainer_id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, trainerId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    IntList ids = new IntList();
+                    while (rs.next()) ids.add(rs.getInt("availability_id"));
+                    return ids;
+                }
+            }
         } catch (Exception e) {
             Terminal.exception(e);
         }
@@ -189,30 +441,27 @@ public class TrainerAvailibility {
         Timestamp endTimestamp
     ) {
         try {
-            // Get all the classes of the trainer.
+            // Check the classes of the trainer.
             String query = """
-                SELECT start_timestamp, end_timestamp
-                    FROM classes
-                    WHERE trainer_id = ?
+                SELECT EXISTS (
+                    SELECT 1
+                        FROM classes
+                        WHERE trainer_id = ?
+                            AND slot && tsrange(?, ?)
+                ) AS conflicting
                 """;
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            pstmt.setInt(1, trainerId);
-            ResultSet rs = pstmt.executeQuery();
-
-            // Check each availibility block for scheduling conflicts.
-            while(rs.next()) {
-                Timestamp st = rs.getTimestamp("start_timestamp");
-                Timestamp et = rs.getTimestamp("end_timestamp");
-                if (Utilities.overlaps(startTimestamp, endTimestamp, st, et))
-                    return true;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, trainerId);
+                pstmt.setTimestamp(2, startTimestamp);
+                pstmt.setTimestamp(3, endTimestamp);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return rs.getBoolean("conflicting");
+                }
             }
-
-            rs.close();
-
         } catch (Exception e) {
             Terminal.exception(e);
-            return true;
         }
-        return false;
+        return true;
     }
 }
@@ -0,0 +1,144 @@
+import java.sql.*;
+
+/**
+ * Helper class to handle the class waitlist table in the database.
+ * Positions are worked out from the seq column of the table on every lookup,
+ * so joins and promotions made by other processes are always seen.
+ */
+public class Waitlist {
+
+    /**
+     * Put a member at the back of the waitlist of a class.
+     * A seat is reserved instead if one is free by the time the member asks.
+     * Members only wait for a full class, never for one overlapping a class
+     * they are registered in. The class row is locked while doing so, so a seat freed by a concurrent
+     * cancellation either goes to this member or is handed down the waitlist.
+     * @param conn The connection to the database.
+     * @param classId The ID of the class.
+     * @param memberId The ID of the member.
+     * @return The position of the member in the waitlist starting at 1, 0 if the
+     *  member has a seat in the class, or null if the class was not found,
+     *  overlaps another class of the member, or failed.
+     */
+    public static Integer join(Connection conn, Integer classId, Integer memberId) {
+        try {
+            boolean autoCommit = conn.getAutoCommit();
+            if (autoCommit) conn.setAutoCommit(false);
+            try {
+                Integer position = enqueue(conn, classId, memberId);
+                if (autoCommit) {
+                    if (position == null) conn.rollback();
+                    else conn.commit();
+                }
+                return position;
+            } catch (Exception e) {
+                if (autoCommit) conn.rollback();
+                throw e;
+            } finally {
+                if (autoCommit) conn.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
+    // Try for a seat once more under the class lock, and queue the member if there is none.
+    private static Integer enqueue(Connection conn, int classId, int memberId) throws SQLException {
+        if (!ClassRegistration.lock(conn, classId)) return null;
+        Reservation reservation = ClassRegistration.reserve(conn, classId, memberId);
+        if (reservation == Reservation.RESERVED || reservation == Reservation.ALREADY_REGISTERED) return 0;
+        if (reservation != Reservation.FULL) return null;
+        String query = """
+            INSERT INTO class_waitlist (class_id, member_id)
+                VALUES (?, ?)
+                ON CONFLICT (class_id, member_id) DO NOTHING
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, classId);
+            pstmt.setInt(2, memberId);
+            pstmt.executeUpdate();
+        }
+        return position(conn, classId, memberId);
+    }
+
+    /**
+     * Remove a member from the waitlist of a class.
+     * @param conn The connection to the database.
+     * @param classId The ID of the class.
+     * @param memberId The ID of the member.
+     * @return True if successfully removed, false otherwise.
+     */
+    public static boolean leave(Connection conn, Integer classId, Integer memberId) {
+        try {
+            String query = "DELETE FROM class_waitlist WHERE class_id = ? AND member_id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                pstmt.setInt(2, memberId);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the position of a member in the waitlist of a class.
+     * @param conn The connection to the database.
+     * @param classId The ID of the class.
+     * @param memberId The ID of the member.
+     * @return The position starting at 1, 0 if the member is not waiting, or null if failed.
+     */
+    public static Integer getPosition(Connection conn, Integer classId, Integer memberId) {
+        try {
+            return position(conn, classId, memberId);
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of members waiting for a class.
+     * @param conn The connection to the database.
+     * @param classId The ID of the class.
+     * @return The length of the waitlist, or null if failed.
+     */
+    public static Integer getLength(Connection conn, Integer classId) {
+        try {
+            String query = "SELECT COUNT(*) AS length FROM class_waitlist WHERE class_id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, classId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return rs.getInt("length");
+                }
+            }
+        } catch (Exception e) {
+            Terminal.exception(e);
+        }
+        return null;
+    }
+
+    // Count the members queued up to and including the given one, using the class and seq index.
+    private static int position(Connection conn, int classId, int memberId) throws SQLException {
+        String query = """
+            SELECT COUNT(*) AS position
+                FROM class_waitlist w
+                JOIN class_waitlist m ON m.class_id = w.class_id
+                WHERE m.class_id = ?
+                    AND m.member_id = ?
+                    AND w.seq <= m.seq
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, classId);
+            pstmt.setInt(2, memberId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getInt("position");
+            }
+        }
+    }
+}
@@ -0,0 +1,3 @@
+javac -d bin -classpath lib/postgresql-42.7.8.jar app/*.java app/db/*.java app/db/helper/*.java
+javac -d bench-bin -classpath "bin:lib/postgresql-42.7.8.jar:lib/jmh/*" -processorpath "lib/jmh/*" bench/*.java
+java $JAVA_OPTS -classpath "bench-bin:bin:lib/postgresql-42.7.8.jar:lib/jmh/*" org.openjdk.jmh.Main "$@"
@@ -0,0 +1,121 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Helper queries end to end against a local database, including the pool
+ * borrow. The database is given with -Dbench.db.url, -Dbench.db.username
+ * and -Dbench.db.password and should hold a realistic data set; the member
+ * with the most health metrics is used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HelperQueryBenchmark {
+
+    private Database db;
+    private int memberId;
+    private String memberName;
+
+    @Setup
+    public void setup() throws SQLException {
+        db = new Database();
+        if (!db.connect(
+            System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/postgres"),
+            System.getProperty("bench.db.username", "postgres"),
+            System.getProperty("bench.db.password", "")
+        )) throw new IllegalStateException("Could not connect to the benchmark database.");
+        try (Connection conn = db.getConnection()) {
+            String query = """
+                SELECT m.member_id, m.name
+                    FROM members m
+                    JOIN health_metrics h ON h.member_id = m.member_id
+                    GROUP BY m.member_id, m.name
+                    ORDER BY count(*) DESC
+                    LIMIT 1
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) throw new IllegalStateException("The benchmark database has no health metrics.");
+                    memberId = rs.getInt("member_id");
+                    memberName = rs.getString("name");
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        db.close();
+    }
+
+    @Benchmark
+    public LinkedList<Integer> healthMetricIds() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return HealthMetric.getRecords(conn, memberId);
+        }
+    }
+
+    @Benchmark
+    public IntList healthMetricIntIds() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return HealthMetric.getRecordIds(conn, memberId);
+        }
+    }
+
+    @Benchmark
+    public LinkedList<HealthMetricRecord> healthHistory() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return HealthMetric.getHistory(conn, memberId, null, null, 100);
+        }
+    }
+
+    @Benchmark
+    public LinkedList<Integer> goalIds() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return FitnessGoal.getGoals(conn, memberId);
+        }
+    }
+
+    @Benchmark
+    public IntList goalIntIds() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return FitnessGoal.getGoalIds(conn, memberId);
+        }
+    }
+
+    @Benchmark
+    public LinkedList<FitnessGoalView> goalViews() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return FitnessGoal.listWithTypes(conn, memberId);
+        }
+    }
+
+    @Benchmark
+    public LinkedList<Integer> membersByName() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return Member.getMembers(conn, memberName);
+        }
+    }
+
+    @Benchmark
+    public IntList memberIntIdsByName() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return Member.getMemberIds(conn, memberName);
+        }
+    }
+
+    @Benchmark
+    public MemberRecord memberProfile() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return Member.load(conn, memberId);
+        }
+    }
+}
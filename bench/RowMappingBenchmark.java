@@ -0,0 +1,86 @@
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mapping result set rows to Java objects, against an in-memory result set
+ * so only the CPU cost is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final String[] METRIC_COLUMNS = {
+        "metric_id", "member_id", "timestamp", "heart_rate", "body_fat", "weight", "height"
+    };
+
+    @Param({ "10", "1000", "100000" })
+    public int rows;
+
+    private Object[][] idRows;
+    private Object[][] metricRows;
+
+    @Setup
+    public void setup() {
+        idRows = new Object[rows][];
+        metricRows = new Object[rows][];
+        long base = Timestamp.valueOf("2024-01-01 07:00:00").getTime();
+        for (int i = 0; i < rows; i++) {
+            idRows[i] = new Object[] { i + 1 };
+            metricRows[i] = new Object[] {
+                i + 1, 1, new Timestamp(base + i * 86_400_000L), 60 + i % 40, 20.5f, 170, 180
+            };
+        }
+    }
+
+    // What getRecords, getGoals and getMembers do with their rows.
+    @Benchmark
+    public LinkedList<Integer> idsToLinkedList() throws SQLException {
+        try (ResultSet rs = StubResultSet.of(new String[] { "id" }, idRows)) {
+            LinkedList<Integer> ids = new LinkedList<>();
+            while (rs.next()) ids.add(rs.getInt("id"));
+            return ids;
+        }
+    }
+
+    @Benchmark
+    public int[] idsToIntArray() throws SQLException {
+        try (ResultSet rs = StubResultSet.of(new String[] { "id" }, idRows)) {
+            int[] ids = new int[16];
+            int size = 0;
+            while (rs.next()) {
+                if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+                ids[size++] = rs.getInt("id");
+            }
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    // What getHistory does with its rows.
+    @Benchmark
+    public LinkedList<HealthMetricRecord> metricsToLinkedList() throws SQLException {
+        try (ResultSet rs = StubResultSet.of(METRIC_COLUMNS, metricRows)) {
+            LinkedList<HealthMetricRecord> records = new LinkedList<>();
+            while (rs.next()) records.add(HealthMetric.read(rs));
+            return records;
+        }
+    }
+
+    @Benchmark
+    public ArrayList<HealthMetricRecord> metricsToArrayList() throws SQLException {
+        try (ResultSet rs = StubResultSet.of(METRIC_COLUMNS, metricRows)) {
+            ArrayList<HealthMetricRecord> records = new ArrayList<>();
+            while (rs.next()) records.add(HealthMetric.read(rs));
+            return records;
+        }
+    }
+}
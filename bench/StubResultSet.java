@@ -0,0 +1,58 @@
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+
+/**
+ * In-memory result set for benchmarking row mapping without a database.
+ * Supports the forward-only getters the helpers use; anything else throws.
+ */
+public class StubResultSet {
+
+    /**
+     * Create a result set over fixed rows.
+     * @param columns The column labels.
+     * @param rows The rows, each holding one value per column.
+     * @return A result set positioned before the first row.
+     */
+    public static ResultSet of(String[] columns, Object[][] rows) {
+        HashMap<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) index.put(columns[i], i);
+        int[] cursor = { -1 };
+        return (ResultSet) Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[] { ResultSet.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        return ++cursor[0] < rows.length;
+                    case "close":
+                        return null;
+                    case "isClosed":
+                    case "wasNull":
+                        return false;
+                    case "getInt":
+                    case "getFloat":
+                    case "getString":
+                    case "getTimestamp":
+                        Object value = rows[cursor[0]][column(index, args[0])];
+                        return switch (method.getName()) {
+                            case "getInt" -> ((Number) value).intValue();
+                            case "getFloat" -> ((Number) value).floatValue();
+                            case "getString" -> (String) value;
+                            default -> (Timestamp) value;
+                        };
+                    default:
+                        throw new SQLFeatureNotSupportedException(method.getName());
+                }
+            }
+        );
+    }
+
+    // Columns are looked up by label like the helpers do, or by 1-based position.
+    private static int column(HashMap<String, Integer> index, Object key) {
+        if (key instanceof Integer position) return position - 1;
+        return index.get((String) key);
+    }
+}
@@ -0,0 +1,49 @@
+import java.sql.Timestamp;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Overlap test used by every conflict check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilitiesBenchmark {
+
+    private static final int SLOTS = 1024;
+    private static final long HOUR_MS = 60 * 60 * 1000;
+
+    private final Timestamp[] starts = new Timestamp[SLOTS];
+    private final Timestamp[] ends = new Timestamp[SLOTS];
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        long base = Timestamp.valueOf("2024-01-01 06:00:00").getTime();
+        for (int i = 0; i < SLOTS; i++) {
+            long start = base + random.nextLong(14 * 24) * HOUR_MS;
+            starts[i] = new Timestamp(start);
+            ends[i] = new Timestamp(start + (1 + random.nextLong(3)) * HOUR_MS);
+        }
+    }
+
+    // Each slot against its neighbour, so both outcomes are exercised.
+    @Benchmark
+    @OperationsPerInvocation(SLOTS)
+    public void overlaps(Blackhole bh) {
+        for (int i = 0; i < SLOTS; i++) {
+            int j = (i + 1) & (SLOTS - 1);
+            bh.consume(Utilities.overlaps(starts[i], ends[i], starts[j], ends[j]));
+        }
+    }
+
+    @Benchmark
+    public Timestamp parseTimestamp() {
+        return Utilities.parseTimestamp("2024-03-15 18:30");
+    }
+}
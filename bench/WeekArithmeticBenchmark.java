@@ -0,0 +1,59 @@
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Weekly recurrence expansion of trainer availability.
+ * calendar is the Calendar loop TrainerAvailibility.add used to run;
+ * localDateTime is what TrainerAvailibility.expand does now.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeekArithmeticBenchmark {
+
+    @Param({ "4", "52" })
+    public int recurrences;
+
+    private Timestamp start;
+    private Timestamp end;
+
+    @Setup
+    public void setup() {
+        start = Timestamp.valueOf("2024-03-04 09:00:00");
+        end = Timestamp.valueOf("2024-03-04 12:00:00");
+    }
+
+    @Benchmark
+    public void calendar(Blackhole bh) {
+        Calendar calendar = Calendar.getInstance();
+        Timestamp st = new Timestamp(start.getTime());
+        Timestamp et = new Timestamp(end.getTime());
+        for (int i = 0; i < recurrences; i++) {
+            calendar.setTime(st);
+            calendar.add(Calendar.WEEK_OF_YEAR, 1);
+            st = new Timestamp(calendar.getTimeInMillis());
+            calendar.setTime(et);
+            calendar.add(Calendar.WEEK_OF_YEAR, 1);
+            et = new Timestamp(calendar.getTimeInMillis());
+            bh.consume(st);
+            bh.consume(et);
+        }
+    }
+
+    @Benchmark
+    public void localDateTime(Blackhole bh) {
+        LocalDateTime st = start.toLocalDateTime();
+        LocalDateTime et = end.toLocalDateTime();
+        for (int i = 1; i <= recurrences; i++) {
+            bh.consume(Timestamp.valueOf(st.plusWeeks(i)));
+            bh.consume(Timestamp.valueOf(et.plusWeeks(i)));
+        }
+    }
+}
@@ -0,0 +1,2 @@
+javac -d bin -classpath lib/postgresql-42.7.8.jar app/*.java app/db/*.java app/db/helper/*.java tools/DataGenerator.java
+java $JAVA_OPTS -classpath bin:lib/postgresql-42.7.8.jar DataGenerator "$@"
@@ -66,8 +66,8 @@ INSERT INTO pt_sessions (trainer_id, member_id, room_id, start_timestamp, end_ti
 -- Insert Classes
 INSERT INTO classes (trainer_id, room_id, name, capacity, start_timestamp, end_timestamp) VALUES
     (1, 1, 'Morning Yoga',       20, '2025-12-20 07:00', '2025-12-22 08:00'),
-    (3, 2, 'Evening HIIT',       25, '2025-12-22 18:00', '2025-01-22 18:45'),
-    (2, 3, 'Strength Basics',    15, '2025-12-23 17:00', '2025-01-23 18:00');
+    (3, 2, 'Evening HIIT',       25, '2025-12-22 18:00', '2025-12-22 18:45'),
+    (2, 3, 'Strength Basics',    15, '2025-12-23 17:00', '2025-12-23 18:00');
 
 -- Insert Class Registrations
 INSERT INTO class_registration (class_id, member_id, register_date) VALUES
@@ -0,0 +1,41 @@
+-- Secondary indexes for the lookups made by the helper classes.
+
+-- Member health history, newest first.
+CREATE INDEX IF NOT EXISTS health_metrics_member_timestamp_idx
+    ON health_metrics (member_id, timestamp);
+
+CREATE INDEX IF NOT EXISTS fitness_goals_member_idx
+    ON fitness_goals (member_id);
+
+-- Trainer, member and room schedules.
+CREATE INDEX IF NOT EXISTS pt_sessions_member_start_idx
+    ON pt_sessions (member_id, start_timestamp);
+
+CREATE INDEX IF NOT EXISTS pt_sessions_trainer_start_idx
+    ON pt_sessions (trainer_id, start_timestamp);
+
+CREATE INDEX IF NOT EXISTS pt_sessions_room_start_idx
+    ON pt_sessions (room_id, start_timestamp);
+
+CREATE INDEX IF NOT EXISTS classes_trainer_start_idx
+    ON classes (trainer_id, start_timestamp);
+
+CREATE INDEX IF NOT EXISTS classes_room_start_idx
+    ON classes (room_id, start_timestamp);
+
+CREATE INDEX IF NOT EXISTS trainer_availability_trainer_start_idx
+    ON trainer_availability (trainer_id, start_timestamp);
+
+-- The primary key of class_registration leads with class_id.
+CREATE INDEX IF NOT EXISTS class_registration_member_idx
+    ON class_registration (member_id);
+
+-- Billing and maintenance.
+CREATE INDEX IF NOT EXISTS invoices_member_idx
+    ON invoices (member_id);
+
+CREATE INDEX IF NOT EXISTS payments_invoice_idx
+    ON payments (invoice_id);
+
+CREATE INDEX IF NOT EXISTS maintenance_tickets_equipment_idx
+    ON maintenance_tickets (equipment_id);
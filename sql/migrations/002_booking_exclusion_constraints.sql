@@ -0,0 +1,81 @@
+-- Let the database reject overlapping bookings instead of checking in the app.
+
+-- Needed to mix plain equality on IDs with range overlap in one GiST index.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- The constraints cannot be added while bad rows exist, so list all of them
+-- up front rather than failing on the first. Fix or delete the listed rows
+-- and restart the app to apply the migration.
+DO $$
+DECLARE
+    problems TEXT;
+BEGIN
+    SELECT string_agg(problem, E'\n')
+        INTO problems
+        FROM (
+            SELECT format('class %s ends at or before it starts', class_id)
+                FROM classes
+                WHERE end_timestamp <= start_timestamp
+            UNION ALL
+            SELECT format('personal training session %s ends at or before it starts', session_id)
+                FROM pt_sessions
+                WHERE end_timestamp <= start_timestamp
+            UNION ALL
+            SELECT format('classes %s and %s overlap for trainer %s', a.class_id, b.class_id, a.trainer_id)
+                FROM classes a
+                JOIN classes b ON b.trainer_id = a.trainer_id
+                    AND b.class_id > a.class_id
+                    AND b.start_timestamp < a.end_timestamp
+                    AND a.start_timestamp < b.end_timestamp
+            UNION ALL
+            SELECT format('classes %s and %s overlap in room %s', a.class_id, b.class_id, a.room_id)
+                FROM classes a
+                JOIN classes b ON b.room_id = a.room_id
+                    AND b.class_id > a.class_id
+                    AND b.start_timestamp < a.end_timestamp
+                    AND a.start_timestamp < b.end_timestamp
+            UNION ALL
+            SELECT format('personal training sessions %s and %s overlap for trainer %s', a.session_id, b.session_id, a.trainer_id)
+                FROM pt_sessions a
+                JOIN pt_sessions b ON b.trainer_id = a.trainer_id
+                    AND b.session_id > a.session_id
+                    AND b.start_timestamp < a.end_timestamp
+                    AND a.start_timestamp < b.end_timestamp
+            UNION ALL
+            SELECT format('personal training sessions %s and %s overlap for member %s', a.session_id, b.session_id, a.member_id)
+                FROM pt_sessions a
+                JOIN pt_sessions b ON b.member_id = a.member_id
+                    AND b.session_id > a.session_id
+                    AND b.start_timestamp < a.end_timestamp
+                    AND a.start_timestamp < b.end_timestamp
+            UNION ALL
+            SELECT format('personal training sessions %s and %s overlap in room %s', a.session_id, b.session_id, a.room_id)
+                FROM pt_sessions a
+                JOIN pt_sessions b ON b.room_id = a.room_id
+                    AND b.session_id > a.session_id
+                    AND b.start_timestamp < a.end_timestamp
+                    AND a.start_timestamp < b.end_timestamp
+        ) p(problem);
+    IF problems IS NOT NULL THEN
+        RAISE EXCEPTION E'Cannot add the booking constraints until these rows are fixed:\n%', problems
+            USING HINT = 'Correct the timestamps or delete the listed rows, then restart the app.';
+    END IF;
+END
+$$;
+
+ALTER TABLE pt_sessions
+    ADD CONSTRAINT pt_sessions_valid_slot CHECK (start_timestamp < end_timestamp),
+    ADD COLUMN slot TSRANGE GENERATED ALWAYS AS (tsrange(start_timestamp, end_timestamp)) STORED;
+
+ALTER TABLE pt_sessions
+    ADD CONSTRAINT pt_sessions_trainer_no_overlap EXCLUDE USING gist (trainer_id WITH =, slot WITH &&),
+    ADD CONSTRAINT pt_sessions_member_no_overlap EXCLUDE USING gist (member_id WITH =, slot WITH &&),
+    ADD CONSTRAINT pt_sessions_room_no_overlap EXCLUDE USING gist (room_id WITH =, slot WITH &&);
+
+ALTER TABLE classes
+    ADD CONSTRAINT classes_valid_slot CHECK (start_timestamp < end_timestamp),
+    ADD COLUMN slot TSRANGE GENERATED ALWAYS AS (tsrange(start_timestamp, end_timestamp)) STORED;
+
+ALTER TABLE classes
+    ADD CONSTRAINT classes_trainer_no_overlap EXCLUDE USING gist (trainer_id WITH =, slot WITH &&),
+    ADD CONSTRAINT classes_room_no_overlap EXCLUDE USING gist (room_id WITH =, slot WITH &&);
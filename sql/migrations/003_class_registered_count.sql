@@ -0,0 +1,16 @@
+-- Keep the number of registrations on the class row so a seat can be taken
+-- with a single conditional update instead of counting registrations.
+
+ALTER TABLE classes
+    ADD COLUMN registered_count INT NOT NULL DEFAULT 0;
+
+UPDATE classes c
+    SET registered_count = (
+        SELECT COUNT(*)
+            FROM class_registration r
+            WHERE r.class_id = c.class_id
+    );
+
+ALTER TABLE classes
+    ADD CONSTRAINT classes_registered_count_check
+        CHECK (registered_count >= 0 AND registered_count <= capacity);
@@ -0,0 +1,16 @@
+-- Members waiting for a seat in a full class, served first come first served.
+
+CREATE TABLE class_waitlist (
+    class_id        INT NOT NULL,
+    member_id       INT NOT NULL,
+    seq             BIGSERIAL NOT NULL,
+    joined_at       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (class_id, member_id),
+    FOREIGN KEY (class_id)
+        REFERENCES classes(class_id),
+    FOREIGN KEY (member_id)
+        REFERENCES members(member_id)
+);
+
+CREATE INDEX class_waitlist_class_seq_idx
+    ON class_waitlist (class_id, seq);
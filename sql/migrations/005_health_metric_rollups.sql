@@ -0,0 +1,40 @@
+-- Daily, weekly and monthly summaries of each member's health metrics, so
+-- trend charts read one row per bucket instead of every raw sample. Sums are
+-- kept instead of averages so new samples can be merged in incrementally.
+
+CREATE TABLE health_metric_rollups (
+    member_id       INT NOT NULL,
+    period          VARCHAR(5) NOT NULL
+        CHECK (period IN ('day', 'week', 'month')),
+    bucket_start    TIMESTAMP NOT NULL,
+    sample_count    INT NOT NULL,
+    heart_rate_min  INT NOT NULL,
+    heart_rate_max  INT NOT NULL,
+    heart_rate_sum  BIGINT NOT NULL,
+    body_fat_min    FLOAT NOT NULL,
+    body_fat_max    FLOAT NOT NULL,
+    body_fat_sum    FLOAT NOT NULL,
+    weight_min      INT NOT NULL,
+    weight_max      INT NOT NULL,
+    weight_sum      BIGINT NOT NULL,
+    height_min      INT NOT NULL,
+    height_max      INT NOT NULL,
+    height_sum      BIGINT NOT NULL,
+    PRIMARY KEY (member_id, period, bucket_start),
+    FOREIGN KEY (member_id)
+        REFERENCES members(member_id)
+);
+
+INSERT INTO health_metric_rollups
+    SELECT h.member_id,
+            p.period,
+            date_trunc(p.period, h.timestamp),
+            COUNT(*),
+            MIN(h.heart_rate), MAX(h.heart_rate), SUM(h.heart_rate),
+            MIN(h.body_fat), MAX(h.body_fat), SUM(h.body_fat),
+            MIN(h.weight), MAX(h.weight), SUM(h.weight),
+            MIN(h.height), MAX(h.height), SUM(h.height)
+        FROM health_metrics h
+        CROSS JOIN (VALUES ('day'), ('week'), ('month')) p(period)
+        WHERE h.timestamp IS NOT NULL
+        GROUP BY h.member_id, p.period, date_trunc(p.period, h.timestamp);
@@ -0,0 +1,24 @@
+-- The most recent health metric record of each member, so the latest record
+-- is a primary key read instead of a MAX(timestamp) scan over the history.
+-- Ties on the timestamp go to the higher metric ID.
+
+CREATE TABLE member_latest_metric (
+    member_id       INT PRIMARY KEY,
+    metric_id       INT NOT NULL,
+    timestamp       TIMESTAMP NOT NULL,
+    heart_rate      INT NOT NULL,
+    body_fat        FLOAT NOT NULL,
+    weight          INT NOT NULL,
+    height          INT NOT NULL,
+    FOREIGN KEY (member_id)
+        REFERENCES members(member_id),
+    FOREIGN KEY (metric_id)
+        REFERENCES health_metrics(metric_id)
+);
+
+INSERT INTO member_latest_metric
+    SELECT DISTINCT ON (member_id)
+            member_id, metric_id, timestamp, heart_rate, body_fat, weight, height
+        FROM health_metrics
+        WHERE timestamp IS NOT NULL
+        ORDER BY member_id, timestamp DESC, metric_id DESC;
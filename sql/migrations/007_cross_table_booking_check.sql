@@ -0,0 +1,50 @@
+-- The exclusion constraints of migration 002 only compare rows of one table.
+-- A trainer or room booked for a class must not also be booked for a
+-- personal training session at the same time, and the other way round.
+
+-- Raised with the exclusion_violation code so callers treat it like the constraints.
+CREATE FUNCTION check_cross_booking() RETURNS TRIGGER AS $$
+BEGIN
+    -- Leave rows that end before they start to the CHECK constraints.
+    IF NEW.start_timestamp >= NEW.end_timestamp THEN
+        RETURN NEW;
+    END IF;
+    -- Serialise bookings of the same trainer or room across both tables,
+    -- always locking the trainer before the room. FOR NO KEY UPDATE does
+    -- not block the foreign key checks of other inserts.
+    PERFORM 1 FROM trainers WHERE trainer_id = NEW.trainer_id FOR NO KEY UPDATE;
+    PERFORM 1 FROM rooms WHERE room_id = NEW.room_id FOR NO KEY UPDATE;
+    IF TG_TABLE_NAME = 'classes' THEN
+        IF EXISTS (
+            SELECT 1
+                FROM pt_sessions p
+                WHERE (p.trainer_id = NEW.trainer_id OR p.room_id = NEW.room_id)
+                    AND p.slot && tsrange(NEW.start_timestamp, NEW.end_timestamp)
+        ) THEN
+            RAISE EXCEPTION 'Class overlaps a personal training session of trainer % or in room %.',
+                NEW.trainer_id, NEW.room_id
+                USING ERRCODE = 'exclusion_violation';
+        END IF;
+    ELSE
+        IF EXISTS (
+            SELECT 1
+                FROM classes c
+                WHERE (c.trainer_id = NEW.trainer_id OR c.room_id = NEW.room_id)
+                    AND c.slot && tsrange(NEW.start_timestamp, NEW.end_timestamp)
+        ) THEN
+            RAISE EXCEPTION 'Personal training session overlaps a class of trainer % or in room %.',
+                NEW.trainer_id, NEW.room_id
+                USING ERRCODE = 'exclusion_violation';
+        END IF;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER classes_cross_booking_check
+    BEFORE INSERT OR UPDATE OF trainer_id, room_id, start_timestamp, end_timestamp ON classes
+    FOR EACH ROW EXECUTE FUNCTION check_cross_booking();
+
+CREATE TRIGGER pt_sessions_cross_booking_check
+    BEFORE INSERT OR UPDATE OF trainer_id, room_id, start_timestamp, end_timestamp ON pt_sessions
+    FOR EACH ROW EXECUTE FUNCTION check_cross_booking();
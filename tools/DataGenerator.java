@@ -0,0 +1,812 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Generator of a synthetic club of any size, streamed into the schema with COPY.
+ * The same seed, sizes and end date always produce the same rows: each member,
+ * day and invoice draws from its own random stream derived from the seed, so
+ * tables can be generated in separate passes and still agree with each other.
+ *
+ * Arguments are key=value pairs:
+ * <pre>
+ * url=jdbc:postgresql://localhost:5432/fitness   database URL
+ * user=postgres password=...                     database login
+ * seed=42                                        random seed
+ * members=10000 trainers=40 rooms=12             population
+ * metrics=100                                    average health metrics per member
+ * years=3 until=2025-06-30                       history length and last day
+ * truncate=true                                  empty the tables first
+ * </pre>
+ */
+public class DataGenerator {
+
+    private static final long DAY_S = 24 * 60 * 60;
+    // Rows are sent to the server in chunks of about this many characters.
+    private static final int FLUSH_CHARS = 1 << 16;
+    // Classes are also scheduled this many days past the last day, so there is something to book.
+    private static final int FUTURE_DAYS = 28;
+
+    // Start minute of the daily class slots, far enough apart that classes of up to an hour never overlap.
+    private static final int[] CLASS_SLOTS = { 7 * 60, 9 * 60, 12 * 60, 17 * 60, 18 * 60 + 30, 20 * 60 };
+    // Personal training hours, all outside the class slots.
+    private static final int[] PT_HOURS = { 6, 8, 10, 11, 13, 14, 15, 16 };
+
+    private static final String[] FIRST_NAMES = {
+        "Olivia", "Liam", "Emma", "Noah", "Ava", "Elijah", "Sophia", "James", "Isabella", "William",
+        "Mia", "Benjamin", "Charlotte", "Lucas", "Amelia", "Henry", "Harper", "Alexander", "Evelyn", "Mateo",
+        "Lily", "Jack", "Jasmine", "Will", "Chloe", "Daniel", "Grace", "Ethan", "Zoe", "Samuel"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Lee", "Wilson", "Anderson", "Taylor", "Thomas", "Moore", "Martin", "Jackson", "Thompson", "White",
+        "Yue", "Leung", "Nguyen", "Patel", "Kim", "Chen", "Singh", "Clark", "Lewis", "Walker"
+    };
+    private static final String[] SPECIALIZATIONS = {
+        "Yoga & Pilates", "Strength Training", "Cardio & HITT", "Boxing", "Rehabilitation", "Spin"
+    };
+    private static final String[] ROOM_NAMES = {
+        "Studio A", "Studio B", "Weight Room", "Combatives Room", "Spin Studio", "Pool", "Cardio Deck", "Hot Studio"
+    };
+    private static final String[] EQUIPMENT = {
+        "Treadmill", "Rowing Machine", "Weight Bench", "Yoga Mats", "Spin Bike", "Cable Machine",
+        "Squat Rack", "Elliptical", "Boxing Bag", "Kettlebell Set"
+    };
+    private static final String[] FAULTS = {
+        "Belt slipping", "Display not working", "Loose bolts", "Torn padding", "Squeaking under load",
+        "Cable frayed", "Does not power on"
+    };
+    private static final String[] CLASS_NAMES = {
+        "Morning Yoga", "HIIT Blast", "Spin Express", "Pilates Core", "Boxing Basics", "Strength Circuit",
+        "Zumba", "Stretch & Recover"
+    };
+    // Goal types as name, unit, smallest and largest target.
+    private static final Object[][] GOAL_TYPES = {
+        { "Weight Loss", "kg", 2, 20 },
+        { "Body Fat Reduction", "%", 1, 10 },
+        { "Strength (Bench Press)", "kg", 40, 140 },
+        { "Running Distance", "km", 5, 42 },
+        { "Muscle Gain", "kg", 1, 8 }
+    };
+    private static final double[] MEMBERSHIP_PRICES = { 29.99, 49.99, 79.99 };
+
+    // Random stream identifiers, one per kind of entity.
+    private static final int MEMBER_STREAM = 1;
+    private static final int TRAINER_STREAM = 2;
+    private static final int ROOM_STREAM = 3;
+    private static final int TICKET_STREAM = 4;
+    private static final int GOAL_STREAM = 5;
+    private static final int METRIC_STREAM = 6;
+    private static final int CLASS_STREAM = 7;
+    private static final int REGISTRATION_STREAM = 8;
+    private static final int SESSION_STREAM = 9;
+    private static final int INVOICE_STREAM = 10;
+
+    private final Connection conn;
+    private final CopyManager copyManager;
+    private final long seed;
+    private final int members;
+    private final int trainers;
+    private final int rooms;
+    private final int metricsPerMember;
+    private final int firstDay;
+    private final int lastDay;
+
+    // The day each member joined, by member ID.
+    private int[] joinDays;
+    private int equipmentCount;
+
+    private DataGenerator(Connection conn, HashMap<String, String> options) throws SQLException {
+        this.conn = conn;
+        this.copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.members = Integer.parseInt(options.getOrDefault("members", "10000"));
+        this.trainers = Integer.parseInt(options.getOrDefault("trainers", "40"));
+        this.rooms = Integer.parseInt(options.getOrDefault("rooms", "12"));
+        this.metricsPerMember = Integer.parseInt(options.getOrDefault("metrics", "100"));
+        LocalDate until = options.containsKey("until") ? LocalDate.parse(options.get("until")) : LocalDate.now();
+        this.lastDay = (int) until.toEpochDay();
+        this.firstDay = lastDay - 365 * Integer.parseInt(options.getOrDefault("years", "3"));
+        if (members < 1 || trainers < 1 || rooms < 1 || metricsPerMember < 0 || firstDay >= lastDay)
+            throw new IllegalArgumentException("Sizes must be positive.");
+    }
+
+    public static void main(String[] args) throws Exception {
+        HashMap<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                System.err.println("Expected key=value, got " + arg);
+                System.exit(1);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        options.putIfAbsent("until", LocalDate.now().toString());
+
+        try (Connection conn = DriverManager.getConnection(
+            options.getOrDefault("url", "jdbc:postgresql://localhost:5432/postgres"),
+            options.getOrDefault("user", "postgres"),
+            options.getOrDefault("password", "")
+        )) {
+            if (Migrator.migrate(conn, Path.of(options.getOrDefault("migrations", "sql/migrations"))) < 0)
+                System.exit(1);
+            DataGenerator generator = new DataGenerator(conn, options);
+            generator.run(Boolean.parseBoolean(options.getOrDefault("truncate", "false")));
+        }
+        // Echo the settings so the exact data set can be generated again.
+        StringBuilder settings = new StringBuilder();
+        for (var option : options.entrySet()) {
+            if (option.getKey().equals("password")) continue;
+            settings.append(' ').append(option.getKey()).append('=').append(option.getValue());
+        }
+        Terminal.app("Generated with" + settings);
+    }
+
+    private void run(boolean truncate) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            // Losing the data in a crash is fine, it can be generated again.
+            stmt.execute("SET synchronous_commit = off");
+            if (truncate) {
+                stmt.execute("""
+                    TRUNCATE members, trainers, rooms, equipment, goal_types, maintenance_tickets, invoices
+                        RESTART IDENTITY CASCADE
+                    """);
+            } else {
+                try (ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM members)")) {
+                    rs.next();
+                    if (rs.getBoolean(1))
+                        throw new IllegalStateException("The database already holds members, pass truncate=true.");
+                }
+            }
+        }
+        try {
+            step("members", this::members);
+            step("trainers", this::trainers);
+            step("rooms", this::rooms);
+            step("equipment", this::equipment);
+            step("maintenance_tickets", this::maintenanceTickets);
+            step("goal_types", this::goalTypes);
+            step("fitness_goals", this::fitnessGoals);
+            step("health_metrics", this::healthMetrics);
+            step("health_metric_rollups", () -> HealthMetric.rebuildRollups(conn));
+            step("member_latest_metric", () -> HealthMetric.rebuildLatest(conn));
+            step("classes", this::classes);
+            step("class_registration", this::classRegistrations);
+            step("pt_sessions", this::ptSessions);
+            step("invoices", this::invoices);
+            step("invoice_items", this::invoiceItems);
+            step("payments", this::payments);
+            finish();
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        }
+        conn.setAutoCommit(true);
+        try (Statement stmt = conn.createStatement()) {
+            Terminal.database("Analyzing...");
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    /**
+     * Generates the rows of one table.
+     */
+    private interface Step {
+        long run() throws SQLException;
+    }
+
+    private static void step(String table, Step step) throws SQLException {
+        long started = System.nanoTime();
+        long rows = step.run();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Terminal.database(String.format(
+            Locale.ROOT, "%-20s %,14d rows %8.1f s %,12.0f rows/s", table, rows, seconds, rows / seconds
+        ));
+    }
+
+    private long members() throws SQLException {
+        joinDays = new int[members + 1];
+        try (Copy copy = copy("COPY members (member_id, name, date_of_birth, gender, email, phone, join_date) FROM STDIN")) {
+            for (int id = 1; id <= members; id++) {
+                SplittableRandom random = random(MEMBER_STREAM, id);
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                // The club grows, so more members joined recently.
+                int joinDay = firstDay + (int) ((lastDay - firstDay) * Math.sqrt(random.nextDouble()));
+                int age = (int) Math.clamp(32 + 11 * random.nextGaussian(), 16, 80);
+                double g = random.nextDouble();
+                joinDays[id] = joinDay;
+                copy.value(id)
+                    .value(first + " " + last)
+                    .date(lastDay - age * 365 - random.nextInt(365))
+                    .value(g < 0.48 ? "Male" : g < 0.96 ? "Female" : "Other")
+                    .value((first + "." + last + "." + id + "@example.com").toLowerCase(Locale.ROOT))
+                    .value(phone(random))
+                    .date(joinDay)
+                    .end();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long trainers() throws SQLException {
+        try (Copy copy = copy("COPY trainers (trainer_id, name, email, phone, specialization, hire_date) FROM STDIN")) {
+            for (int id = 1; id <= trainers; id++) {
+                SplittableRandom random = random(TRAINER_STREAM, id);
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                copy.value(id)
+                    .value(first + " " + last)
+                    .value((first + "." + last + ".trainer" + id + "@example.com").toLowerCase(Locale.ROOT))
+                    .value(phone(random))
+                    .value(SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)])
+                    .date(firstDay - random.nextInt(1000))
+                    .end();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long rooms() throws SQLException {
+        try (Copy copy = copy("COPY rooms (room_id, location) FROM STDIN")) {
+            for (int id = 1; id <= rooms; id++) {
+                String name = ROOM_NAMES[(id - 1) % ROOM_NAMES.length];
+                if (id > ROOM_NAMES.length) name += " " + ((id - 1) / ROOM_NAMES.length + 1);
+                copy.value(id).value(name).end();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long equipment() throws SQLException {
+        int id = 0;
+        try (Copy copy = copy("COPY equipment (equipment_id, room_id, name, is_operational) FROM STDIN")) {
+            for (int room = 1; room <= rooms; room++) {
+                SplittableRandom random = random(ROOM_STREAM, room);
+                int count = 5 + random.nextInt(11);
+                for (int i = 1; i <= count; i++) {
+                    copy.value(++id)
+                        .value(room)
+                        .value(EQUIPMENT[random.nextInt(EQUIPMENT.length)] + " " + i)
+                        .value(true)
+                        .end();
+                }
+            }
+            equipmentCount = id;
+            return copy.rows();
+        }
+    }
+
+    // Every piece of equipment breaks every few months and takes up to three weeks to fix.
+    private long maintenanceTickets() throws SQLException {
+        long rows;
+        String sql = """
+            COPY maintenance_tickets (equipment_id, report_date, description, being_repaired, is_repaired, resolved_date)
+                FROM STDIN
+            """;
+        try (Copy copy = copy(sql)) {
+            for (int equipment = 1; equipment <= equipmentCount; equipment++) {
+                SplittableRandom random = random(TICKET_STREAM, equipment);
+                int day = firstDay + exponential(random, 90);
+                while (day <= lastDay) {
+                    int resolved = day + 1 + random.nextInt(21);
+                    boolean repaired = resolved <= lastDay;
+                    copy.value(equipment)
+                        .date(day)
+                        .value(FAULTS[random.nextInt(FAULTS.length)])
+                        .value(!repaired && random.nextBoolean())
+                        .value(repaired);
+                    if (repaired) copy.date(resolved);
+                    else copy.nul();
+                    copy.end();
+                    day = resolved + exponential(random, 90);
+                }
+            }
+            rows = copy.rows();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("""
+                UPDATE equipment
+                    SET is_operational = FALSE
+                    WHERE equipment_id IN (
+                        SELECT equipment_id
+                            FROM maintenance_tickets
+                            WHERE NOT is_repaired
+                    )
+                """);
+        }
+        return rows;
+    }
+
+    private long goalTypes() throws SQLException {
+        try (Copy copy = copy("COPY goal_types (type_id, name, unit) FROM STDIN")) {
+            for (int i = 0; i < GOAL_TYPES.length; i++) {
+                copy.value(i + 1).value((String) GOAL_TYPES[i][0]).value((String) GOAL_TYPES[i][1]).end();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long fitnessGoals() throws SQLException {
+        String sql = """
+            COPY fitness_goals (member_id, type_id, target_value, target_date, start_date, is_completed)
+                FROM STDIN
+            """;
+        try (Copy copy = copy(sql)) {
+            for (int member = 1; member <= members; member++) {
+                SplittableRandom random = random(GOAL_STREAM, member);
+                double g = random.nextDouble();
+                int goals = g < 0.3 ? 0 : g < 0.7 ? 1 : g < 0.9 ? 2 : 3;
+                for (int i = 0; i < goals; i++) {
+                    int type = random.nextInt(GOAL_TYPES.length);
+                    int min = (Integer) GOAL_TYPES[type][2];
+                    int max = (Integer) GOAL_TYPES[type][3];
+                    int start = joinDays[member] + random.nextInt(lastDay - joinDays[member] + 1);
+                    int target = start + 30 + random.nextInt(151);
+                    copy.value(member)
+                        .value(type + 1)
+                        .value(min + random.nextInt(max - min + 1))
+                        .date(target)
+                        .date(start)
+                        .value(target <= lastDay && random.nextDouble() < 0.45)
+                        .end();
+                }
+            }
+            return copy.rows();
+        }
+    }
+
+    // A few members log almost every day while most log now and then.
+    private long healthMetrics() throws SQLException {
+        String sql = "COPY health_metrics (member_id, timestamp, heart_rate, body_fat, weight, height) FROM STDIN";
+        try (Copy copy = copy(sql)) {
+            for (int member = 1; member <= members; member++) {
+                SplittableRandom random = random(METRIC_STREAM, member);
+                int count = exponential(random, metricsPerMember);
+                int span = lastDay - joinDays[member] + 1;
+                boolean male = random.nextBoolean();
+                int height = (int) Math.round((male ? 178 : 165) + 7 * random.nextGaussian());
+                double weight = (18.5 + random.nextDouble() * 14) * height * height / 10000.0;
+                double bodyFat = (male ? 14 : 22) + random.nextDouble() * 14;
+                int restingRate = 55 + random.nextInt(30);
+                // Spread the records evenly over the membership in date order.
+                double step = (double) span / Math.max(count, 1);
+                for (int i = 0; i < count; i++) {
+                    int day = joinDays[member] + (int) Math.min(span - 1, i * step + random.nextDouble() * step);
+                    weight = Math.max(40, weight - 0.02 + 0.3 * random.nextGaussian());
+                    bodyFat = Math.clamp(bodyFat - 0.01 + 0.15 * random.nextGaussian(), 5, 50);
+                    copy.value(member)
+                        .timestamp(day * DAY_S + peakMinute(random) * 60L + random.nextInt(60))
+                        .value(restingRate + random.nextInt(-5, 6))
+                        .value(Math.round(bodyFat * 10) / 10.0)
+                        .value((int) Math.round(weight))
+                        .value(height)
+                        .end();
+                }
+            }
+            return copy.rows();
+        }
+    }
+
+    /**
+     * Receives the classes of the schedule one at a time.
+     */
+    private interface ClassVisitor {
+        void visit(int classId, int day, int slot, int room, int trainer, int capacity, int duration) throws SQLException;
+    }
+
+    // Regenerate the class schedule in class ID order; each day draws from its own stream.
+    private void forEachClass(ClassVisitor visitor) throws SQLException {
+        int classId = 0;
+        int parallel = Math.min(rooms, trainers);
+        for (int day = firstDay; day < lastDay + FUTURE_DAYS; day++) {
+            SplittableRandom random = random(CLASS_STREAM, day);
+            boolean weekend = LocalDate.ofEpochDay(day).getDayOfWeek().getValue() >= 6;
+            for (int slot = 0; slot < CLASS_SLOTS.length; slot++) {
+                double chance = (weekend ? 0.35 : 0.6) + (slot >= 3 ? 0.2 : 0);
+                // Rotate trainers over the rooms so no trainer teaches two classes at once.
+                int offset = random.nextInt(trainers);
+                for (int room = 1; room <= parallel; room++) {
+                    if (random.nextDouble() >= chance) continue;
+                    int trainer = 1 + (offset + room) % trainers;
+                    int capacity = 10 + 5 * random.nextInt(5);
+                    int duration = random.nextBoolean() ? 45 : 60;
+                    visitor.visit(++classId, day, slot, room, trainer, capacity, duration);
+                }
+            }
+        }
+    }
+
+    private long classes() throws SQLException {
+        String sql = """
+            COPY classes (class_id, trainer_id, room_id, name, capacity, start_timestamp, end_timestamp)
+                FROM STDIN
+            """;
+        try (Copy copy = copy(sql)) {
+            forEachClass((classId, day, slot, room, trainer, capacity, duration) -> {
+                long start = day * DAY_S + CLASS_SLOTS[slot] * 60L;
+                copy.value(classId)
+                    .value(trainer)
+                    .value(room)
+                    .value(CLASS_NAMES[(room + slot) % CLASS_NAMES.length])
+                    .value(capacity)
+                    .timestamp(start)
+                    .timestamp(start + duration * 60L)
+                    .end();
+            });
+            return copy.rows();
+        }
+    }
+
+    // Past classes are mostly full, evening ones fuller; upcoming ones fill as they get closer.
+    private long classRegistrations() throws SQLException {
+        long rows;
+        try (Copy copy = copy("COPY class_registration (class_id, member_id, register_date) FROM STDIN")) {
+            HashSet<Integer> busy = new HashSet<>();
+            int[] current = { Integer.MIN_VALUE };
+            forEachClass((classId, day, slot, room, trainer, capacity, duration) -> {
+                // A member can only be in one class of a time slot.
+                int key = day * CLASS_SLOTS.length + slot;
+                if (key != current[0]) {
+                    busy.clear();
+                    current[0] = key;
+                }
+                SplittableRandom random = random(REGISTRATION_STREAM, classId);
+                double fill = 0.5 + random.nextDouble() * 0.5 + (slot >= 3 ? 0.1 : 0);
+                if (day > lastDay) fill *= 1 - (double) (day - lastDay) / FUTURE_DAYS;
+                int wanted = Math.min(capacity, (int) Math.round(capacity * fill));
+                for (int i = 0; i < wanted; i++) {
+                    int member = pickMember(random, Math.min(day, lastDay), busy);
+                    if (member == 0) continue;
+                    int registered = Math.max(joinDays[member], day - random.nextInt(15));
+                    copy.value(classId).value(member).date(Math.min(registered, lastDay)).end();
+                }
+            });
+            rows = copy.rows();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("""
+                UPDATE classes c
+                    SET registered_count = r.registered
+                    FROM (
+                        SELECT class_id, COUNT(*) AS registered
+                            FROM class_registration
+                            GROUP BY class_id
+                    ) r
+                    WHERE r.class_id = c.class_id
+                """);
+        }
+        return rows;
+    }
+
+    // Sessions start on the hour outside class times, with distinct trainers, rooms and members per hour.
+    private long ptSessions() throws SQLException {
+        String sql = """
+            COPY pt_sessions (trainer_id, member_id, room_id, start_timestamp, end_timestamp)
+                FROM STDIN
+            """;
+        try (Copy copy = copy(sql)) {
+            int parallel = Math.min(rooms, trainers);
+            HashSet<Integer> busy = new HashSet<>();
+            for (int day = firstDay; day < lastDay + FUTURE_DAYS / 2; day++) {
+                SplittableRandom random = random(SESSION_STREAM, day);
+                for (int hour : PT_HOURS) {
+                    busy.clear();
+                    int sessions = random.nextInt(Math.max(1, parallel / 3) + 1);
+                    int trainerOffset = random.nextInt(trainers);
+                    int roomOffset = random.nextInt(rooms);
+                    for (int i = 0; i < sessions; i++) {
+                        int member = pickMember(random, Math.min(day, lastDay), busy);
+                        if (member == 0) continue;
+                        long start = day * DAY_S + hour * 3600L;
+                        copy.value(1 + (trainerOffset + i) % trainers)
+                            .value(member)
+                            .value(1 + (roomOffset + i) % rooms)
+                            .timestamp(start)
+                            .timestamp(start + 3600)
+                            .end();
+                    }
+                }
+            }
+            return copy.rows();
+        }
+    }
+
+    // Pick a random member who had joined by the given day and is not busy, or 0 if none was found.
+    private int pickMember(SplittableRandom random, int day, HashSet<Integer> busy) {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            int member = 1 + random.nextInt(members);
+            if (joinDays[member] <= day && busy.add(member)) return member;
+        }
+        return 0;
+    }
+
+    /**
+     * A generated invoice with its items and payment.
+     */
+    private record Invoice(
+        int invoiceId,
+        int memberId,
+        long issued,
+        ArrayList<Object[]> items,
+        double total,
+        boolean paid,
+        int paymentDay,
+        String method
+    ) {}
+
+    /**
+     * Receives the invoices one at a time.
+     */
+    private interface InvoiceVisitor {
+        void visit(Invoice invoice) throws SQLException;
+    }
+
+    // Regenerate the monthly invoices in invoice ID order; each member draws from its own stream.
+    private void forEachInvoice(InvoiceVisitor visitor) throws SQLException {
+        int invoiceId = 0;
+        LocalDate last = LocalDate.ofEpochDay(lastDay);
+        for (int member = 1; member <= members; member++) {
+            SplittableRandom random = random(INVOICE_STREAM, member);
+            double price = MEMBERSHIP_PRICES[random.nextInt(MEMBERSHIP_PRICES.length)];
+            LocalDate month = LocalDate.ofEpochDay(joinDays[member]).withDayOfMonth(1);
+            for (; !month.isAfter(last); month = month.plusMonths(1)) {
+                ArrayList<Object[]> items = new ArrayList<>();
+                items.add(new Object[] { "Membership", 1, price });
+                if (random.nextDouble() < 0.15) items.add(new Object[] { "Personal Training", 1 + random.nextInt(4), 60.0 });
+                if (random.nextDouble() < 0.1) items.add(new Object[] { "Class Pack", 1, 40.0 });
+                double total = 0;
+                for (Object[] item : items) total += (Integer) item[1] * (Double) item[2];
+                int issueDay = (int) month.toEpochDay();
+                boolean paid = random.nextDouble() < (lastDay - issueDay > 60 ? 0.97 : 0.7);
+                int paymentDay = Math.min(lastDay, issueDay + random.nextInt(21));
+                double m = random.nextDouble();
+                String method = m < 0.6 ? "Credit Card" : m < 0.9 ? "Debit" : "Cash";
+                visitor.visit(new Invoice(
+                    ++invoiceId,
+                    member,
+                    issueDay * DAY_S + (2 + random.nextInt(4)) * 3600L,
+                    items,
+                    Math.round(total * 100) / 100.0,
+                    paid,
+                    paymentDay,
+                    method
+                ));
+            }
+        }
+    }
+
+    private long invoices() throws SQLException {
+        String sql = "COPY invoices (invoice_id, member_id, issue_timestamp, total, is_paid) FROM STDIN";
+        try (Copy copy = copy(sql)) {
+            forEachInvoice(invoice -> copy.value(invoice.invoiceId())
+                .value(invoice.memberId())
+                .timestamp(invoice.issued())
+                .value(invoice.total())
+                .value(invoice.paid())
+                .end());
+            return copy.rows();
+        }
+    }
+
+    private long invoiceItems() throws SQLException {
+        String sql = """
+            COPY invoice_items (invoice_id, item_num, item_type, quantity, unit_price, total_price)
+                FROM STDIN
+            """;
+        try (Copy copy = copy(sql)) {
+            forEachInvoice(invoice -> {
+                int num = 0;
+                for (Object[] item : invoice.items()) {
+                    int quantity = (Integer) item[1];
+                    double unitPrice = (Double) item[2];
+                    copy.value(invoice.invoiceId())
+                        .value(++num)
+                        .value((String) item[0])
+                        .value(quantity)
+                        .value(unitPrice)
+                        .value(Math.round(quantity * unitPrice * 100) / 100.0)
+                        .end();
+                }
+            });
+            return copy.rows();
+        }
+    }
+
+    private long payments() throws SQLException {
+        String sql = "COPY payments (invoice_id, amount_paid, method, payment_date) FROM STDIN";
+        try (Copy copy = copy(sql)) {
+            forEachInvoice(invoice -> {
+                if (!invoice.paid()) return;
+                copy.value(invoice.invoiceId())
+                    .value(invoice.total())
+                    .value(invoice.method())
+                    .date(invoice.paymentDay())
+                    .end();
+            });
+            return copy.rows();
+        }
+    }
+
+    // Move the ID sequences past the explicit IDs that were copied in.
+    private void finish() throws SQLException {
+        String[][] sequences = {
+            { "members", "member_id" },
+            { "trainers", "trainer_id" },
+            { "rooms", "room_id" },
+            { "equipment", "equipment_id" },
+            { "goal_types", "type_id" },
+            { "classes", "class_id" },
+            { "invoices", "invoice_id" }
+        };
+        try (Statement stmt = conn.createStatement()) {
+            for (String[] sequence : sequences) {
+                stmt.execute(String.format(
+                    "SELECT setval(pg_get_serial_sequence('%1$s', '%2$s'), COALESCE(MAX(%2$s), 1), MAX(%2$s) IS NOT NULL) FROM %1$s",
+                    sequence[0], sequence[1]
+                ));
+            }
+        }
+    }
+
+    // The random stream of one entity, independent of every other entity.
+    private SplittableRandom random(int stream, long id) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + id);
+    }
+
+    // Exponentially distributed whole number with the given mean.
+    private static int exponential(SplittableRandom random, double mean) {
+        return (int) Math.min(Integer.MAX_VALUE / 2, -Math.log(1 - random.nextDouble()) * mean);
+    }
+
+    // Minute of the day, clustered around the morning, lunch and evening rushes.
+    private static int peakMinute(SplittableRandom random) {
+        double u = random.nextDouble();
+        if (u < 0.4) return 6 * 60 + random.nextInt(180);
+        if (u < 0.55) return 11 * 60 + 30 + random.nextInt(120);
+        return 17 * 60 + random.nextInt(240);
+    }
+
+    private static String phone(SplittableRandom random) {
+        return String.format("%03d-%03d-%04d", 200 + random.nextInt(800), random.nextInt(1000), random.nextInt(10000));
+    }
+
+    private Copy copy(String sql) throws SQLException {
+        return new Copy(copyManager.copyIn(sql));
+    }
+
+    /**
+     * Streams rows to a COPY ... FROM STDIN in text format.
+     */
+    private static class Copy implements AutoCloseable {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 1024);
+        private boolean rowStarted;
+        private long rows;
+        private int cachedDay = Integer.MIN_VALUE;
+        private String cachedDate;
+
+        Copy(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        Copy value(long v) {
+            separate();
+            buffer.append(v);
+            return this;
+        }
+
+        Copy value(double v) {
+            separate();
+            buffer.append(v);
+            return this;
+        }
+
+        Copy value(boolean v) {
+            separate();
+            buffer.append(v ? 't' : 'f');
+            return this;
+        }
+
+        Copy value(String v) {
+            separate();
+            for (int i = 0; i < v.length(); i++) {
+                char c = v.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+            return this;
+        }
+
+        Copy nul() {
+            separate();
+            buffer.append("\\N");
+            return this;
+        }
+
+        Copy date(int epochDay) {
+            separate();
+            buffer.append(formatDate(epochDay));
+            return this;
+        }
+
+        Copy timestamp(long epochSecond) {
+            separate();
+            int day = (int) Math.floorDiv(epochSecond, DAY_S);
+            int second = (int) Math.floorMod(epochSecond, DAY_S);
+            buffer.append(formatDate(day)).append(' ');
+            two(second / 3600).append(':');
+            two(second / 60 % 60).append(':');
+            two(second % 60);
+            return this;
+        }
+
+        void end() throws SQLException {
+            buffer.append('\n');
+            rowStarted = false;
+            rows++;
+            if (buffer.length() >= FLUSH_CHARS) flush();
+        }
+
+        long rows() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!copyIn.isActive()) return;
+            try {
+                flush();
+                copyIn.endCopy();
+            } catch (SQLException | RuntimeException e) {
+                if (copyIn.isActive()) copyIn.cancelCopy();
+                throw e;
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        private void separate() {
+            if (rowStarted) buffer.append('\t');
+            rowStarted = true;
+        }
+
+        private StringBuilder two(int n) {
+            if (n < 10) buffer.append('0');
+            return buffer.append(n);
+        }
+
+        // Rows are mostly generated in date order, so the last date is worth keeping.
+        private String formatDate(int epochDay) {
+            if (epochDay != cachedDay) {
+                cachedDay = epochDay;
+                cachedDate = LocalDate.ofEpochDay(epochDay).toString();
+            }
+            return cachedDate;
+        }
+    }
+}
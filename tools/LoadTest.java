@@ -0,0 +1,339 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load generator simulating a club's peak hour against a local database.
+ * Runs a number of clients, each on its own virtual thread, that call the
+ * Controller in a loop with a weighted mix of operations, then reports the
+ * throughput, latency percentiles, errors and conflicts of each operation.
+ *
+ * Arguments are key=value pairs:
+ * <pre>
+ * url=jdbc:postgresql://localhost:5432/fitness   database URL
+ * user=postgres password=...                     database login
+ * clients=50                                     concurrent clients
+ * duration=60 warmup=10                          measured and warm-up seconds
+ * mix=login:30,profile:30,metric:15,goals:15,booking:10
+ * </pre>
+ * The pool is sized with the usual db.pool.* system properties.
+ */
+public class LoadTest {
+
+    /**
+     * The operations a client can perform.
+     */
+    private enum Operation { LOGIN, PROFILE, METRIC, GOALS, BOOKING }
+
+    /**
+     * How an operation ended.
+     */
+    private enum Outcome { OK, CONFLICT, ERROR }
+
+    private static final String DEFAULT_MIX = "login:30,profile:30,metric:15,goals:15,booking:10";
+    private static final int SAMPLE_SIZE = 10000;
+
+    private final Database db;
+    private final Controller controller;
+    private final int[] memberIds;
+    private final String[] emails;
+    private final int[] classIds;
+    private final Operation[] mix;
+
+    private LoadTest(Database db, int[] memberIds, String[] emails, int[] classIds, Operation[] mix) {
+        this.db = db;
+        this.controller = new Controller(db);
+        this.memberIds = memberIds;
+        this.emails = emails;
+        this.classIds = classIds;
+        this.mix = mix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        HashMap<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                System.err.println("Expected key=value, got " + arg);
+                System.exit(1);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        String url = options.getOrDefault("url", "jdbc:postgresql://localhost:5432/postgres");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "50"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+
+        Database db = new Database();
+        if (!db.connect(url, options.getOrDefault("user", "postgres"), options.getOrDefault("password", ""))) {
+            System.exit(1);
+        }
+        try {
+            LoadTest test = prepare(db, options.getOrDefault("mix", DEFAULT_MIX));
+            Terminal.app(
+                "Running " + clients + " clients for " + warmup + " s warm-up and " + duration + " s..."
+            );
+            Stats[] stats = test.run(clients, warmup * 1_000_000_000L, duration * 1_000_000_000L);
+            report(stats, duration);
+            PoolStatistics pool = db.getStatistics();
+            System.out.printf(
+                "%npool: %d borrows, %d timeouts, %d opened, statement cache %d hits / %d misses%n",
+                pool.borrows(), pool.timeouts(), pool.created(), pool.statementHits(), pool.statementMisses()
+            );
+        } finally {
+            db.close();
+        }
+    }
+
+    // Sample the members and upcoming classes to drive the clients with.
+    private static LoadTest prepare(Database db, String mixSpec) throws SQLException {
+        ArrayList<Integer> memberIds = new ArrayList<>();
+        ArrayList<String> emails = new ArrayList<>();
+        ArrayList<Integer> classIds = new ArrayList<>();
+        try (Connection conn = db.getConnection()) {
+            String query = "SELECT member_id, email FROM members ORDER BY random() LIMIT ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, SAMPLE_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        memberIds.add(rs.getInt("member_id"));
+                        emails.add(rs.getString("email"));
+                    }
+                }
+            }
+            query = "SELECT class_id FROM classes WHERE start_timestamp > now() ORDER BY random() LIMIT ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, SAMPLE_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) classIds.add(rs.getInt("class_id"));
+                }
+            }
+        }
+        if (memberIds.isEmpty()) throw new IllegalStateException("The database has no members to load test with.");
+
+        ArrayList<Operation> mix = new ArrayList<>();
+        for (String part : mixSpec.split(",")) {
+            String[] weight = part.split(":");
+            Operation op = Operation.valueOf(weight[0].strip().toUpperCase(Locale.ROOT));
+            if (op == Operation.BOOKING && classIds.isEmpty()) {
+                Terminal.error("No upcoming classes, leaving bookings out of the mix.");
+                continue;
+            }
+            for (int i = 0; i < Integer.parseInt(weight[1].strip()); i++) mix.add(op);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("The operation mix is empty.");
+
+        return new LoadTest(
+            db,
+            memberIds.stream().mapToInt(Integer::intValue).toArray(),
+            emails.toArray(new String[0]),
+            classIds.stream().mapToInt(Integer::intValue).toArray(),
+            mix.toArray(new Operation[0])
+        );
+    }
+
+    // Run the clients and merge their statistics.
+    private Stats[] run(int clients, long warmupNanos, long durationNanos) throws Exception {
+        long measureFrom = System.nanoTime() + warmupNanos;
+        long stopAt = measureFrom + durationNanos;
+        ArrayList<Future<Stats[]>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) results.add(executor.submit(() -> client(measureFrom, stopAt)));
+        }
+        Stats[] total = newStats();
+        for (Future<Stats[]> result : results) {
+            Stats[] stats = result.get();
+            for (int i = 0; i < total.length; i++) total[i].merge(stats[i]);
+        }
+        return total;
+    }
+
+    // One client: pick an operation, time it, repeat until the end of the run.
+    private Stats[] client(long measureFrom, long stopAt) {
+        Stats[] stats = newStats();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < stopAt) {
+            Operation op = mix[random.nextInt(mix.length)];
+            int member = random.nextInt(memberIds.length);
+            int classId = op == Operation.BOOKING ? classIds[random.nextInt(classIds.length)] : 0;
+            Outcome outcome;
+            try {
+                outcome = perform(op, member, classId, random);
+            } catch (RuntimeException e) {
+                outcome = Outcome.ERROR;
+            }
+            long end = System.nanoTime();
+            if (now >= measureFrom) stats[op.ordinal()].record((end - now) / 1000, outcome);
+            // Give a booked seat back outside the timed section.
+            if (op == Operation.BOOKING && outcome == Outcome.OK) release(classId, memberIds[member]);
+        }
+        return stats;
+    }
+
+    private Outcome perform(Operation op, int member, int classId, ThreadLocalRandom random) {
+        int memberId = memberIds[member];
+        return switch (op) {
+            case LOGIN -> controller.getMemberIdByEmail(emails[member]) != null ? Outcome.OK : Outcome.ERROR;
+            case PROFILE -> controller.getMemberProfile(memberId) != null ? Outcome.OK : Outcome.ERROR;
+            case METRIC -> controller.addHealthMetric(
+                memberId,
+                random.nextInt(50, 180),
+                (float) random.nextDouble(8, 40),
+                random.nextInt(100, 300),
+                random.nextInt(150, 200)
+            ) ? Outcome.OK : Outcome.ERROR;
+            case GOALS -> controller.getFitnessGoalViews(memberId) != null ? Outcome.OK : Outcome.ERROR;
+            case BOOKING -> switch (controller.reserveClassSeat(classId, memberId)) {
+                case RESERVED -> Outcome.OK;
+                case FULL, ALREADY_REGISTERED, CONFLICT -> Outcome.CONFLICT;
+                case NOT_FOUND, FAILED, UNAVAILABLE -> Outcome.ERROR;
+            };
+        };
+    }
+
+    // Undo a booking without promoting anyone from the waitlist, so the
+    // registrations and waitlists of the classes are the same after a run.
+    private void release(int classId, int memberId) {
+        String query = """
+            WITH removed AS (
+                DELETE FROM class_registration
+                    WHERE class_id = ?
+                        AND member_id = ?
+                    RETURNING class_id
+            )
+            UPDATE classes
+                SET registered_count = registered_count - 1
+                WHERE class_id IN (SELECT class_id FROM removed)
+            """;
+        try (Connection conn = db.getConnection(); PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, classId);
+            pstmt.setInt(2, memberId);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            Terminal.exception(e);
+        }
+    }
+
+    private static Stats[] newStats() {
+        Stats[] stats = new Stats[Operation.values().length];
+        for (int i = 0; i < stats.length; i++) stats[i] = new Stats();
+        return stats;
+    }
+
+    private static void report(Stats[] stats, int durationSeconds) {
+        System.out.println();
+        System.out.printf(
+            "%-10s %10s %10s %10s %10s %10s %10s %8s %9s%n",
+            "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors", "conflicts"
+        );
+        Stats total = new Stats();
+        for (Operation op : Operation.values()) {
+            Stats s = stats[op.ordinal()];
+            if (s.count == 0) continue;
+            row(op.name().toLowerCase(Locale.ROOT), s, durationSeconds);
+            total.merge(s);
+        }
+        row("total", total, durationSeconds);
+    }
+
+    private static void row(String name, Stats s, int durationSeconds) {
+        System.out.printf(
+            "%-10s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d %9d%n",
+            name,
+            s.count,
+            (double) s.count / durationSeconds,
+            s.latency.percentile(0.50) / 1000.0,
+            s.latency.percentile(0.99) / 1000.0,
+            s.latency.percentile(0.999) / 1000.0,
+            s.latency.max / 1000.0,
+            s.errors,
+            s.conflicts
+        );
+    }
+
+    /**
+     * Counters of one operation, kept per client and merged at the end.
+     */
+    private static class Stats {
+        final Histogram latency = new Histogram();
+        long count;
+        long errors;
+        long conflicts;
+
+        void record(long micros, Outcome outcome) {
+            count++;
+            latency.record(micros);
+            if (outcome == Outcome.ERROR) errors++;
+            else if (outcome == Outcome.CONFLICT) conflicts++;
+        }
+
+        void merge(Stats other) {
+            count += other.count;
+            errors += other.errors;
+            conflicts += other.conflicts;
+            latency.merge(other.latency);
+        }
+    }
+
+    /**
+     * Log-linear latency histogram in microseconds.
+     * Values below 1024 get their own bucket; above that each power of two is
+     * split into 512 buckets, so percentiles are within 0.2% of the true value.
+     */
+    private static class Histogram {
+        private static final int LINEAR = 1024;
+        private static final int SUB_BUCKETS = 512;
+        private static final int MAX_SHIFT = 32;
+
+        private final long[] counts = new long[LINEAR + MAX_SHIFT * SUB_BUCKETS];
+        private long total;
+        long max;
+
+        void record(long value) {
+            value = Math.max(0, value);
+            counts[index(value)]++;
+            total++;
+            max = Math.max(max, value);
+        }
+
+        void merge(Histogram other) {
+            for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+            total += other.total;
+            max = Math.max(max, other.max);
+        }
+
+        // The smallest recorded value at or above the given fraction of all values.
+        long percentile(double fraction) {
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(lowerBound(i), max);
+            }
+            return max;
+        }
+
+        private static int index(long value) {
+            if (value < LINEAR) return (int) value;
+            int shift = Math.min(64 - Long.numberOfLeadingZeros(value) - 10, MAX_SHIFT);
+            long sub = Math.min(value >> shift, 2L * SUB_BUCKETS - 1);
+            return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (sub - SUB_BUCKETS);
+        }
+
+        private static long lowerBound(int index) {
+            if (index < LINEAR) return index;
+            int k = index - LINEAR;
+            return (long) (k % SUB_BUCKETS + SUB_BUCKETS) << (k / SUB_BUCKETS + 1);
+        }
+    }
+}